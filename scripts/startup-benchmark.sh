@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of GET /api/employees/{id} for a plain JVM start of each
+# profile set in PROFILES, then an AppCDS start and (on a CRaC-enabled JDK) a CRaC restore
+# of the last one.
+#
+# usage: [PROFILES="h2 h2,prod"] scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+PROFILES=${PROFILES:-h2 h2,prod}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK="$ROOT/target/startup-benchmark"
+MAIN_CLASS=net.javaguides.springboot.SpringBootTestingApplication
+BASE_URL="http://localhost:$PORT/api/employees"
+
+cd "$ROOT"
+mvn -B -q -DskipTests package
+rm -rf "$WORK" && mkdir -p "$WORK/exploded"
+(cd "$WORK/exploded" && jar -xf "$ROOT"/target/*.jar)
+# CDS only archives classes from the builtin class loaders, so run from the exploded jar
+CLASSPATH="$WORK/exploded/BOOT-INF/classes:$WORK/exploded/BOOT-INF/lib/*"
+
+now_ms() { date +%s%3N; }
+
+seed() {
+    curl -s -o /dev/null -H 'Content-Type: application/json' \
+        -d '{"firstName":"Fan","lastName":"Jups","email":"bench@gmail.com"}' "$BASE_URL"
+}
+
+wait_for_first_request() {
+    local start=$1
+    until curl -s -o /dev/null "$BASE_URL/1"; do sleep 0.005; done
+    echo $(( $(now_ms) - start ))
+}
+
+stop() {
+    kill "$1" 2>/dev/null || true
+    wait "$1" 2>/dev/null || true
+}
+
+report() {
+    local name=$1; shift
+    printf '%-10s %s ms (runs: %s)\n' "$name" "$(printf '%s\n' "$@" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')" "$*"
+}
+
+run_plain() {
+    local start pid
+    start=$(now_ms)
+    java "$@" -cp "$CLASSPATH" "$MAIN_CLASS" "${APP_ARGS[@]}" > "$WORK/app.log" 2>&1 &
+    pid=$!
+    wait_for_first_request "$start"
+    stop "$pid"
+}
+
+for profile in $PROFILES; do
+    APP_ARGS=(--spring.profiles.active="$profile" --server.port="$PORT")
+    plain=()
+    for _ in $(seq "$RUNS"); do plain+=("$(run_plain)"); done
+    report "$profile" "${plain[@]}"
+done
+
+# AppCDS: training run dumps the archive on exit, measured runs map it
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -cp "$CLASSPATH" "$MAIN_CLASS" "${APP_ARGS[@]}" > "$WORK/cds-training.log" 2>&1 &
+pid=$!
+wait_for_first_request "$(now_ms)" > /dev/null
+seed
+stop "$pid"
+appcds=()
+for _ in $(seq "$RUNS"); do appcds+=("$(run_plain -XX:SharedArchiveFile="$WORK/app.jsa")"); done
+report appcds "${appcds[@]}"
+
+# CRaC: warm the JIT, checkpoint with jcmd, then time restores
+if java -XX:CRaCCheckpointTo="$WORK/cr" -version > /dev/null 2>&1; then
+    java -XX:CRaCCheckpointTo="$WORK/cr" -cp "$CLASSPATH" "$MAIN_CLASS" "${APP_ARGS[@]}" > "$WORK/crac.log" 2>&1 &
+    pid=$!
+    wait_for_first_request "$(now_ms)" > /dev/null
+    seed
+    for _ in $(seq 2000); do curl -s -o /dev/null "$BASE_URL/1"; done
+    jcmd "$pid" JDK.checkpoint > /dev/null
+    wait "$pid" 2>/dev/null || true
+    crac=()
+    for _ in $(seq "$RUNS"); do
+        start=$(now_ms)
+        java -XX:CRaCRestoreFrom="$WORK/cr" > "$WORK/crac-restore.log" 2>&1 &
+        pid=$!
+        crac+=("$(wait_for_first_request "$start")")
+        stop "$pid"
+    done
+    report crac "${crac[@]}"
+else
+    echo "crac       skipped: $(java -version 2>&1 | head -1) has no CRaC support"
+fi
@@ -0,0 +1,20 @@
+package net.javaguides.springboot.archive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+@ConditionalOnProperty(value = "archive.enabled", matchIfMissing = true)
+public class ArchiveConfig {
+
+    @Bean
+    public ArchiveMover archiveMover(DataSource dataSource, ArchiveProperties properties) {
+        return new ArchiveMover(dataSource, properties, Clock.systemUTC());
+    }
+}
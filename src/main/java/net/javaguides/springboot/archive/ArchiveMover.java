@@ -0,0 +1,82 @@
+package net.javaguides.springboot.archive;
+
+import net.javaguides.springboot.sharding.ShardRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+// Moves terminated employees into employees_archive in small batches. Plain SQL on purpose: the
+// entity mappings hide terminated rows and scope to one tenant, the mover works on all of them,
+// shard by shard.
+public class ArchiveMover {
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveMover.class);
+
+    private static final String SELECT_BATCH = "select id from employees"
+            + " where status = 'TERMINATED' and terminated_at < :cutoff order by id limit :limit";
+    private static final String COPY_BATCH = "insert into employees_archive"
+            + " (id, tenant_id, first_name, last_name, email, terminated_at, archived_at)"
+            + " select id, tenant_id, first_name, last_name, email, terminated_at, :archivedAt"
+            + " from employees where id in (:ids)";
+    private static final String DELETE_BATCH = "delete from employees where id in (:ids)";
+
+    private final DataSource dataSource;
+    private final ArchiveProperties properties;
+    private final Clock clock;
+
+    public ArchiveMover(DataSource dataSource, ArchiveProperties properties, Clock clock) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(initialDelayString = "${archive.interval:PT5M}", fixedDelayString = "${archive.interval:PT5M}")
+    public void archiveTerminated() {
+        List<DataSource> targets = dataSource instanceof ShardRoutingDataSource routing
+                ? List.copyOf(routing.getShards().values())
+                : List.of(dataSource);
+        int moved = 0;
+        for (DataSource target : targets) {
+            moved += archiveTerminated(target);
+        }
+        if (moved > 0) {
+            logger.info("Archived {} terminated employees", moved);
+        }
+    }
+
+    private int archiveTerminated(DataSource target) {
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(target);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(target));
+        Instant now = clock.instant();
+        MapSqlParameterSource selectParameters = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.from(now.minus(properties.getGracePeriod())))
+                .addValue("limit", properties.getBatchSize());
+        int moved = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH, selectParameters, Long.class);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                MapSqlParameterSource batchParameters = new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("archivedAt", Timestamp.from(now));
+                jdbcTemplate.update(COPY_BATCH, batchParameters);
+                return jdbcTemplate.update(DELETE_BATCH, batchParameters);
+            });
+            moved += batch;
+            if (batch < properties.getBatchSize()) {
+                return moved;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package net.javaguides.springboot.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("archive")
+public class ArchiveProperties {
+    private boolean enabled = true;
+    // how often the mover runs
+    private Duration interval = Duration.ofMinutes(5);
+    // terminated rows stay in the hot table this long before they are archived
+    private Duration gracePeriod = Duration.ofHours(1);
+    // rows moved per transaction, keeps locks and undo short
+    private int batchSize = 500;
+}
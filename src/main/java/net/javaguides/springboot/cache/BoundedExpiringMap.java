@@ -0,0 +1,74 @@
+package net.javaguides.springboot.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+// At most maxEntries values, each until its own deadline. Reads are a single map lookup. A put into
+// a full map sweeps expired entries first and then drops a tenth of the rest in hash order, which
+// approximates random eviction without bookkeeping on every read.
+public class BoundedExpiringMap {
+    private final int maxEntries;
+    private final LongSupplier ticker;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public BoundedExpiringMap(int maxEntries, LongSupplier ticker) {
+        this.maxEntries = maxEntries;
+        this.ticker = ticker;
+    }
+
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ticker.getAsLong() - entry.expiresAtNanos >= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(String key, byte[] value, long ttlNanos) {
+        long now = ticker.getAsLong();
+        if (entries.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry(value, now + ttlNanos));
+    }
+
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+            int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+            Iterator<String> keys = entries.keySet().iterator();
+            while (excess-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+    }
+}
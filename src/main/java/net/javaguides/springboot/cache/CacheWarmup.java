@@ -0,0 +1,155 @@
+package net.javaguides.springboot.cache;
+
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.sharding.ShardRoutingDataSource;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Loads the hot set into EmployeeCache before the instance takes traffic. Spring Boot reports
+// readiness (ACCEPTING_TRAFFIC) only after the ApplicationRunners return, so blocking here keeps the
+// instance out of the load balancer until warm-up finishes or warmup.timeout passes; liveness is
+// unaffected. The hot set is the most read employees of the last run, saved every persist-interval
+// and on shutdown; a first start loads the most recently created employees instead.
+public class CacheWarmup implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmup.class);
+
+    private static final String SELECT_RECENT = "select tenant_id, id from employees"
+            + " where status = 'ACTIVE' order by id desc limit ?";
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeCache employeeCache;
+    private final DataSource dataSource;
+    private final EmployeeCacheProperties.Warmup properties;
+
+    public CacheWarmup(EmployeeRepository employeeRepository, EmployeeCache employeeCache, DataSource dataSource,
+                       EmployeeCacheProperties.Warmup properties) {
+        this.employeeRepository = employeeRepository;
+        this.employeeCache = employeeCache;
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    public int warmUp() {
+        long start = System.nanoTime();
+        List<RecentReads.HotKey> keys = readHotSet();
+        String source = "hot set";
+        if (keys.isEmpty()) {
+            keys = recentEmployees();
+            source = "most recent employees";
+        }
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+        try {
+            for (Map.Entry<String, List<Long>> tenant : byTenant(keys).entrySet()) {
+                List<Long> ids = tenant.getValue();
+                for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + properties.getChunkSize(), ids.size()));
+                    executor.execute(() -> TenantContext.runAs(tenant.getKey(), () ->
+                            employeeRepository.findAllById(chunk).forEach(employee -> {
+                                employeeCache.put(employee);
+                                loaded.incrementAndGet();
+                            })));
+                }
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Cache warm-up timed out after {}, continuing with {} of {} employees",
+                        properties.getTimeout(), loaded.get(), keys.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Warmed the employee cache with {} employees from the {} in {} ms", loaded.get(), source,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded.get();
+    }
+
+    @Scheduled(initialDelayString = "${employee-cache.warmup.persist-interval:PT5M}",
+            fixedDelayString = "${employee-cache.warmup.persist-interval:PT5M}")
+    public void persistHotSet() {
+        List<RecentReads.HotKey> hottest = employeeCache.hottest(properties.getSize());
+        if (hottest.isEmpty()) {
+            return;
+        }
+        Path file = properties.getHotSetFile();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), "hot-set", ".tmp");
+            List<String> lines = new ArrayList<>(hottest.size());
+            hottest.forEach(key -> lines.add(key.tenantId() + "," + key.id()));
+            Files.write(temporary, lines);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not save the employee hot set to {}", file, e);
+        }
+    }
+
+    private List<RecentReads.HotKey> readHotSet() {
+        Path file = properties.getHotSetFile();
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        try {
+            List<RecentReads.HotKey> keys = new ArrayList<>();
+            for (String line : Files.readAllLines(file)) {
+                int comma = line.lastIndexOf(',');
+                if (comma > 0 && keys.size() < properties.getSize()) {
+                    keys.add(new RecentReads.HotKey(line.substring(0, comma), Long.parseLong(line.substring(comma + 1))));
+                }
+            }
+            return keys;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable employee hot set {}", file, e);
+            return List.of();
+        }
+    }
+
+    private List<RecentReads.HotKey> recentEmployees() {
+        List<DataSource> targets = dataSource instanceof ShardRoutingDataSource routing
+                ? List.copyOf(routing.getShards().values())
+                : List.of(dataSource);
+        List<RecentReads.HotKey> keys = new ArrayList<>();
+        for (DataSource target : targets) {
+            keys.addAll(new JdbcTemplate(target).query(SELECT_RECENT,
+                    (resultSet, rowNum) -> new RecentReads.HotKey(resultSet.getString(1), resultSet.getLong(2)),
+                    properties.getSize()));
+        }
+        return keys;
+    }
+
+    private static Map<String, List<Long>> byTenant(List<RecentReads.HotKey> keys) {
+        Map<String, List<Long>> ids = new LinkedHashMap<>();
+        for (RecentReads.HotKey key : keys) {
+            if (TenantContext.isValid(key.tenantId())) {
+                ids.computeIfAbsent(key.tenantId(), tenantId -> new ArrayList<>()).add(key.id());
+            }
+        }
+        return ids;
+    }
+}
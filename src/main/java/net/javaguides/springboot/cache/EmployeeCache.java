@@ -0,0 +1,184 @@
+package net.javaguides.springboot.cache;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Employees by id, and email -> id, in two tiers: a small near cache on each node in front of the
+// shared tier all replicas read. A write evicts the keys from the shared tier and publishes them, and
+// every node drops them from its near cache, so a change made through any replica is seen by all of
+// them without waiting for the near TTL. Keys carry the tenant. A shared tier that fails is treated
+// as a miss; the near TTL bounds staleness if an invalidation is lost with it.
+public class EmployeeCache {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeCache.class);
+
+    private final SharedCache shared;
+    private final BoundedExpiringMap near;
+    private final EmployeeCacheProperties properties;
+    private final RecentReads recentReads;
+    // every property, including the ones the API marks read-only (tenantId, status, version)
+    private final ObjectMapper codec = JsonMapper.builder()
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .addModule(new JavaTimeModule())
+            .build();
+    private final Counter nearHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+    private final Counter sharedErrors;
+
+    public EmployeeCache(SharedCache shared, EmployeeCacheProperties properties, MeterRegistry meterRegistry) {
+        this(shared, properties, meterRegistry, System::nanoTime);
+    }
+
+    EmployeeCache(SharedCache shared, EmployeeCacheProperties properties, MeterRegistry meterRegistry,
+                  LongSupplier ticker) {
+        this.shared = shared;
+        this.near = new BoundedExpiringMap(properties.getNearMaxEntries(), ticker);
+        this.properties = properties;
+        this.recentReads = new RecentReads(properties.getWarmup().getTrackedReads());
+        this.nearHits = Counter.builder("employee.cache.requests").tag("result", "near_hit").register(meterRegistry);
+        this.sharedHits = Counter.builder("employee.cache.requests").tag("result", "shared_hit").register(meterRegistry);
+        this.misses = Counter.builder("employee.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sharedErrors = Counter.builder("employee.cache.shared.errors").register(meterRegistry);
+        Gauge.builder("employee.cache.near.size", near, BoundedExpiringMap::size).register(meterRegistry);
+        shared.subscribe(near::remove);
+    }
+
+    public Optional<Employee> get(long id) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        recentReads.record(id);
+        return Optional.ofNullable(lookup(idKey(id))).map(this::decode);
+    }
+
+    public Optional<Employee> getByEmail(String email) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        byte[] id = lookup(emailKey(email));
+        return id == null ? Optional.empty() : get(Long.parseLong(new String(id, StandardCharsets.US_ASCII)));
+    }
+
+    // the most read employees of the recent window, what a restart should warm up
+    public List<RecentReads.HotKey> hottest(int limit) {
+        return recentReads.hottest(limit);
+    }
+
+    public void put(Employee employee) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        byte[] value = encode(employee);
+        byte[] id = Long.toString(employee.getId()).getBytes(StandardCharsets.US_ASCII);
+        String idKey = idKey(employee.getId());
+        String emailKey = emailKey(employee.getEmail());
+        onShared(() -> {
+            shared.put(idKey, value, properties.getSharedTtl());
+            shared.put(emailKey, id, properties.getSharedTtl());
+            return null;
+        });
+        long nearTtlNanos = properties.getNearTtl().toNanos();
+        near.put(idKey, value, nearTtlNanos);
+        near.put(emailKey, id, nearTtlNanos);
+    }
+
+    public void evict(long id) {
+        if (properties.isEnabled()) {
+            evict(idKey(id));
+        }
+    }
+
+    // also evicts the employee the email maps to, for writes that only know the email
+    public void evictEmail(String email) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String emailKey = emailKey(email);
+        byte[] id = onShared(() -> shared.get(emailKey));
+        if (id != null) {
+            evict(idKey(Long.parseLong(new String(id, StandardCharsets.US_ASCII))));
+        }
+        evict(emailKey);
+    }
+
+    // drops this node's near tier only; the shared tier is left to its owner
+    public void clearNear() {
+        near.clear();
+    }
+
+    private byte[] lookup(String key) {
+        byte[] value = near.get(key);
+        if (value != null) {
+            nearHits.increment();
+            return value;
+        }
+        value = onShared(() -> shared.get(key));
+        if (value != null) {
+            sharedHits.increment();
+            near.put(key, value, properties.getNearTtl().toNanos());
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void evict(String key) {
+        near.remove(key);
+        onShared(() -> {
+            shared.evict(key);
+            shared.publish(key);
+            return null;
+        });
+    }
+
+    private <T> T onShared(Supplier<T> operation) {
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            logger.debug("Shared employee cache unavailable", e);
+            return null;
+        }
+    }
+
+    private static String idKey(long id) {
+        return "employee:" + TenantContext.getTenantId() + ":id:" + id;
+    }
+
+    private static String emailKey(String email) {
+        return "employee:" + TenantContext.getTenantId() + ":email:" + email;
+    }
+
+    private byte[] encode(Employee employee) {
+        try {
+            return codec.writeValueAsBytes(employee);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Employee decode(byte[] value) {
+        try {
+            return codec.readValue(value, Employee.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.javaguides.springboot.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeCacheProperties.class)
+public class EmployeeCacheConfig {
+
+    // only exact on a single node: each replica gets its own copy and never hears the others' writes.
+    // Entries therefore live no longer than the near TTL, the staleness already accepted per node,
+    // until a Redis or Hazelcast backed SharedCache bean replaces it.
+    @Bean
+    @ConditionalOnMissingBean
+    public SharedCache sharedCache(EmployeeCacheProperties properties) {
+        return new InMemorySharedCache(properties.getInMemoryMaxEntries(), properties.getNearTtl());
+    }
+
+    @Bean
+    public EmployeeCache employeeCache(SharedCache sharedCache, EmployeeCacheProperties properties,
+                                       MeterRegistry meterRegistry) {
+        return new EmployeeCache(sharedCache, properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "persistHotSet")
+    @ConditionalOnProperty(value = "employee-cache.warmup.enabled", matchIfMissing = true)
+    public CacheWarmup cacheWarmup(EmployeeRepository employeeRepository, EmployeeCache employeeCache,
+                                   DataSource dataSource, EmployeeCacheProperties properties) {
+        return new CacheWarmup(employeeRepository, employeeCache, dataSource, properties.getWarmup());
+    }
+}
@@ -0,0 +1,42 @@
+package net.javaguides.springboot.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("employee-cache")
+public class EmployeeCacheProperties {
+    private boolean enabled = true;
+    // per-node entries; ids and email mappings count separately
+    private int nearMaxEntries = 10_000;
+    // bounds how stale a node can be if it misses an invalidation message
+    private Duration nearTtl = Duration.ofSeconds(30);
+    // only applies to a real SharedCache; the in-memory stand-in is capped at nearTtl
+    private Duration sharedTtl = Duration.ofMinutes(10);
+    // capacity of the in-memory shared tier used when no Redis/Hazelcast SharedCache bean is defined
+    private int inMemoryMaxEntries = 100_000;
+    private Warmup warmup = new Warmup();
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        private boolean enabled = true;
+        // employees loaded into the cache before the instance reports ready
+        private int size = 10_000;
+        // ids per findAllById and threads running them
+        private int chunkSize = 500;
+        private int parallelism = 4;
+        // readiness is reported after this even if warm-up has not finished
+        private Duration timeout = Duration.ofSeconds(30);
+        // the hot set saved by the last run; without one the most recent employees are loaded
+        private Path hotSetFile = Path.of(System.getProperty("java.io.tmpdir"), "employee-cache", "hot-set.csv");
+        private Duration persistInterval = Duration.ofMinutes(5);
+        // reads remembered to pick the hot set from
+        private int trackedReads = 65_536;
+    }
+}
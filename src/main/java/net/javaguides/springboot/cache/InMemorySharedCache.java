@@ -0,0 +1,65 @@
+package net.javaguides.springboot.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// Stand-in for the shared tier in tests and single-node runs. Nodes that share one instance behave
+// like replicas on one Redis: same entries, and publish reaches every subscriber synchronously.
+// Separate JVMs each get their own instance and never see each other's invalidations, so with several
+// replicas maxTtl must be no longer than the staleness a node is allowed (the near TTL).
+public class InMemorySharedCache implements SharedCache {
+    private final BoundedExpiringMap entries;
+    private final long maxTtlNanos;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public InMemorySharedCache(int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    public InMemorySharedCache(int maxEntries, Duration maxTtl) {
+        this(maxEntries, maxTtl, System::nanoTime);
+    }
+
+    public InMemorySharedCache(int maxEntries, LongSupplier ticker) {
+        this(maxEntries, null, ticker);
+    }
+
+    public InMemorySharedCache(int maxEntries, Duration maxTtl, LongSupplier ticker) {
+        this.entries = new BoundedExpiringMap(maxEntries, ticker);
+        this.maxTtlNanos = maxTtl != null ? maxTtl.toNanos() : Long.MAX_VALUE;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        entries.put(key, value, Math.min(ttl.toNanos(), maxTtlNanos));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void publish(String key) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(key);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+}
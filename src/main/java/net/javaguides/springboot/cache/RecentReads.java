@@ -0,0 +1,45 @@
+package net.javaguides.springboot.cache;
+
+import net.javaguides.springboot.tenant.TenantContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// The last `capacity` employee reads in a ring: recording is one increment and one array store,
+// memory is fixed. hottest() counts the ring, so "hot" means read most often in the recent window.
+public class RecentReads {
+    private final AtomicReferenceArray<HotKey> ring;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    public RecentReads(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void record(long id) {
+        ring.lazySet((int) (next.getAndIncrement() & mask), new HotKey(TenantContext.getTenantId(), id));
+    }
+
+    public List<HotKey> hottest(int limit) {
+        Map<HotKey, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ring.length(); i++) {
+            HotKey key = ring.get(i);
+            if (key != null) {
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+        List<Map.Entry<HotKey, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<HotKey, Integer>comparingByValue(Comparator.reverseOrder()));
+        return entries.stream().limit(limit).map(Map.Entry::getKey).toList();
+    }
+
+    public record HotKey(String tenantId, long id) {
+    }
+}
@@ -0,0 +1,20 @@
+package net.javaguides.springboot.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// The tier all replicas share, e.g. Redis (GET/SET PX/DEL, PUBLISH/SUBSCRIBE) or a Hazelcast IMap and
+// ITopic. Values are opaque bytes so adapters need no knowledge of Employee. Define a bean of this
+// type to replace the in-memory stand-in.
+public interface SharedCache {
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void evict(String key);
+
+    // invalidation channel: every subscriber on every node, including the publisher, receives the key
+    void publish(String key);
+
+    void subscribe(Consumer<String> listener);
+}
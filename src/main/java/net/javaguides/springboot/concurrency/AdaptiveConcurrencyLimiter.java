@@ -0,0 +1,99 @@
+package net.javaguides.springboot.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Admits calls while fewer than limit.getLimit() are in flight. Callers over the limit wait up to
+// maxWaitNanos in a bounded queue, so short bursts are absorbed and sustained overload is rejected
+// here rather than piling up on Hikari's connection wait.
+public class AdaptiveConcurrencyLimiter {
+    private final VegasLimit limit;
+    private final int maxQueued;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    public AdaptiveConcurrencyLimiter(VegasLimit limit, int maxQueued) {
+        this.limit = limit;
+        this.maxQueued = maxQueued;
+    }
+
+    public boolean acquire(long maxWaitNanos) throws InterruptedException {
+        if (tryIncrement()) {
+            return true;
+        }
+        if (maxWaitNanos <= 0 || queued.incrementAndGet() > maxQueued) {
+            if (maxWaitNanos > 0) {
+                queued.decrementAndGet();
+            }
+            return false;
+        }
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (!tryIncrement()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = permitReleased.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            queued.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        limit.onSample(rttNanos, inFlightAtCompletion, dropped);
+        signalQueued();
+    }
+
+    // for calls that never reached the database: their RTT says nothing about its queueing
+    public void release() {
+        inFlight.decrementAndGet();
+        signalQueued();
+    }
+
+    private void signalQueued() {
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                permitReleased.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void reset() {
+        limit.reset();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    private boolean tryIncrement() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.javaguides.springboot.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+// Admits EmployeeService calls through the limiter, but only calls that reached EmployeeRepository feed
+// Vegas an RTT sample: cache hits would drag its minRtt down to memory speed. getEmployeeStats reads
+// in-memory counters and is not limited at all.
+@Aspect
+public class ConcurrencyLimitAspect {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+    // set while a limited call runs, flipped by the first repository call it makes
+    private final ThreadLocal<boolean[]> databaseCalled = new ThreadLocal<>();
+
+    public ConcurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.rejected = Counter.builder("concurrency.limit.rejected").register(meterRegistry);
+    }
+
+    @Around("execution(* net.javaguides.springboot.service.EmployeeService.*(..))"
+            + " && !execution(* net.javaguides.springboot.service.EmployeeService.getEmployeeStats(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!limiter.acquire(maxWaitNanos)) {
+            rejected.increment();
+            throw new ConcurrencyLimitExceededException(limiter.getLimit());
+        }
+        boolean[] outer = databaseCalled.get();
+        boolean[] called = {false};
+        databaseCalled.set(called);
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException e) {
+            dropped = isOverload(e);
+            throw e;
+        } finally {
+            if (outer == null) {
+                databaseCalled.remove();
+            } else {
+                databaseCalled.set(outer);
+                outer[0] |= called[0];
+            }
+            if (called[0] || dropped) {
+                limiter.release(System.nanoTime() - start, dropped);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    // pool or query timeouts: the database is past its capacity. Other transient failures, lost
+    // optimistic locks above all, are ordinary write contention and must not shrink the limit.
+    static boolean isOverload(Throwable e) {
+        if (e instanceof CannotCreateTransactionException || e instanceof QueryTimeoutException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Before("this(net.javaguides.springboot.repository.EmployeeRepository)")
+    public void onRepositoryCall() {
+        boolean[] called = databaseCalled.get();
+        if (called != null) {
+            called[0] = true;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package net.javaguides.springboot.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(value = "concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        VegasLimit limit = new VegasLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getProbeInterval());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limit, properties.getMaxQueued());
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("concurrency.limit.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    public ConcurrencyLimitAspect concurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter,
+                                                         ConcurrencyLimitProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitAspect(limiter, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package net.javaguides.springboot.concurrency;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class ConcurrencyLimitExceededException extends ResponseStatusException {
+    private static final HttpHeaders RETRY_AFTER = HttpHeaders.readOnlyHttpHeaders(retryAfter());
+
+    public ConcurrencyLimitExceededException(int limit) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Concurrency limit of " + limit + " in-flight calls reached");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return RETRY_AFTER;
+    }
+
+    private static HttpHeaders retryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
+}
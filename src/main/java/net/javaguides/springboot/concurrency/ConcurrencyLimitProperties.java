@@ -0,0 +1,22 @@
+package net.javaguides.springboot.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    // how long a call over the limit may wait for a slot before it is rejected
+    private Duration maxWait = Duration.ofMillis(50);
+    private int maxQueued = 200;
+    // samples between resets of the no-load latency baseline
+    private int probeInterval = 1000;
+}
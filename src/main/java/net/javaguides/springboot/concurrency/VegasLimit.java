@@ -0,0 +1,70 @@
+package net.javaguides.springboot.concurrency;
+
+// TCP Vegas applied to in-flight DB calls. Little's law says that once the database is saturated,
+// extra concurrency only adds queueing: queue = limit * (1 - minRtt / rtt). The limit grows while
+// that estimated queue is short and shrinks once it builds up, and it backs off harder when calls
+// start timing out. minRtt is re-probed periodically so the baseline follows the database.
+public class VegasLimit {
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private volatile int limit;
+    private long minRttNanos;
+    private long samplesSinceProbe;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+        this.limit = clamp(initialLimit);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // forgets what was learned, back to the initial limit and no minRtt
+    public synchronized void reset() {
+        limit = clamp(initialLimit);
+        minRttNanos = 0;
+        samplesSinceProbe = 0;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            minRttNanos = 0;
+        }
+        if (dropped) {
+            limit = clamp((int) (limit * 0.9));
+            return;
+        }
+        if (minRttNanos == 0 || rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+        // not enough load to learn anything about the limit
+        if (inFlight * 2 < limit) {
+            return;
+        }
+
+        int currentLimit = limit;
+        int log = Math.max(1, (int) Math.log10(currentLimit));
+        int queue = (int) Math.ceil(currentLimit * (1 - (double) minRttNanos / Math.max(rttNanos, 1)));
+        int alpha = 3 * log;
+        int beta = 6 * log;
+        if (queue <= log) {
+            limit = clamp(currentLimit + beta);
+        } else if (queue < alpha) {
+            limit = clamp(currentLimit + log);
+        } else if (queue > beta) {
+            limit = clamp(currentLimit - log);
+        }
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,94 @@
+package net.javaguides.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.sharding.ShardRoutingDataSource;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Drains the Hikari pools (one per shard) and the second-level cache before a CRaC checkpoint and
+// resumes the pools after restore, so no database socket ends up in the image. Without CRaC support
+// in the JVM the registration is a no-op.
+@Component
+public class CheckpointRestoreResource implements Resource {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointRestoreResource.class);
+    private static final Duration CONNECTIONS_CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CheckpointRestoreResource(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+
+        for (HikariPoolMXBean pool : hikariPools()) {
+            pool.suspendPool();
+            pool.softEvictConnections();
+            waitForConnectionsToClose(pool);
+        }
+        logger.info("Hikari pools suspended and drained for checkpoint");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws Exception {
+        for (HikariPoolMXBean pool : hikariPools()) {
+            pool.resumePool();
+        }
+        logger.info("Hikari pools resumed after restore");
+    }
+
+    private List<HikariPoolMXBean> hikariPools() throws SQLException {
+        Collection<DataSource> dataSources = dataSource instanceof ShardRoutingDataSource routing
+                ? routing.getShards().values()
+                : List.of(dataSource);
+        List<HikariPoolMXBean> pools = new ArrayList<>();
+        for (DataSource candidate : dataSources) {
+            if (!candidate.isWrapperFor(HikariDataSource.class)) {
+                continue;
+            }
+            HikariDataSource hikari = candidate.unwrap(HikariDataSource.class);
+            if (!hikari.isAllowPoolSuspension()) {
+                logger.warn("Hikari pool suspension is disabled for {}; open connections will end up in the checkpoint",
+                        hikari.getPoolName());
+                continue;
+            }
+            pools.add(hikari.getHikariPoolMXBean());
+        }
+        return pools;
+    }
+
+    private void waitForConnectionsToClose(HikariPoolMXBean pool) throws InterruptedException {
+        long deadline = System.nanoTime() + CONNECTIONS_CLOSE_TIMEOUT.toNanos();
+        while (pool.getTotalConnections() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Hikari pool still has " + pool.getTotalConnections()
+                        + " open connections after " + CONNECTIONS_CLOSE_TIMEOUT);
+            }
+            pool.softEvictConnections();
+            Thread.sleep(50);
+        }
+    }
+}
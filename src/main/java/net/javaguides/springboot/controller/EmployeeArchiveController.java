@@ -0,0 +1,37 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.model.ArchivedEmployee;
+import net.javaguides.springboot.service.EmployeeArchiveService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Search over archived (terminated) employees. Kept apart from EmployeeController: the archive is
+// large and cold, so it is paged, capped and rate limited with the list budget.
+@RestController
+@RequestMapping("/api/employees/archive")
+public class EmployeeArchiveController {
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final EmployeeArchiveService employeeArchiveService;
+
+    public EmployeeArchiveController(EmployeeArchiveService employeeArchiveService) {
+        this.employeeArchiveService = employeeArchiveService;
+    }
+
+    @GetMapping
+    public List<ArchivedEmployee> searchArchive(@RequestParam(value = "email", required = false) String email,
+                                                @RequestParam(value = "lastName", required = false) String lastName,
+                                                @RequestParam(value = "page", defaultValue = "0") int page,
+                                                @RequestParam(value = "size", defaultValue = "20") int size){
+        if(page < 0 || size < 1 || size > MAX_PAGE_SIZE){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        return employeeArchiveService.searchArchive(email, lastName, page, size);
+    }
+}
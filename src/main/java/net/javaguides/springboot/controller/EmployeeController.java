@@ -1,24 +1,42 @@
 package net.javaguides.springboot.controller;
 
+import io.micrometer.observation.annotation.Observed;
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeStats;
+import net.javaguides.springboot.exception.ResourceNotFoundException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeQuery;
+import net.javaguides.springboot.repository.EmployeeRepositoryCustom;
 import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+@Observed(name = "employee.controller")
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
+    static final int MAX_UPSERT_EMPLOYEES = 1000;
+
     private EmployeeService employeeService;
 
     public EmployeeController(EmployeeService employeeService) {
@@ -33,27 +51,190 @@ public class EmployeeController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployees(){
+    public List<Employee> getAllEmployees(@RequestParam(value = "limit", required = false) Integer limit,
+                                          @RequestParam(value = "cursor", required = false) String cursor){
+        rejectPaging(limit, cursor);
         return employeeService.getAllEmployees();
     }
 
+    // filter and/or sort switch the list to capped keyset pages
+    @GetMapping(params = {"filter", "!ids"})
+    public EmployeePage searchEmployees(@RequestParam("filter") List<String> filter,
+                                        @RequestParam(value = "sort", required = false) String sort,
+                                        @RequestParam(value = "limit", required = false) Integer limit,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "fields", required = false) List<String> fields){
+        if(fields != null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields cannot be combined with filter or sort");
+        }
+        EmployeeQuery query;
+        try {
+            query = EmployeeQuery.parse(filter, sort, limit, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return employeeService.searchEmployees(query);
+    }
+
+    @GetMapping(params = {"sort", "!filter", "!ids"})
+    public EmployeePage sortEmployees(@RequestParam("sort") String sort,
+                                      @RequestParam(value = "limit", required = false) Integer limit,
+                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                      @RequestParam(value = "fields", required = false) List<String> fields){
+        return searchEmployees(List.of(), sort, limit, cursor, fields);
+    }
+
+    @GetMapping(params = {"fields", "!filter", "!sort", "!ids"})
+    public List<Map<String, Object>> getAllEmployees(@RequestParam("fields") List<String> fields,
+                                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                                     @RequestParam(value = "cursor", required = false) String cursor){
+        rejectPaging(limit, cursor);
+        return employeeService.getAllEmployees(selectedFields(fields));
+    }
+
+    @GetMapping("stats")
+    public EmployeeStats getEmployeeStats(){
+        return employeeService.getEmployeeStats();
+    }
+
+    @PostMapping("lookup")
+    public EmployeeLookup lookupEmployees(@RequestBody List<Long> ids){
+        return employeesByIds(ids);
+    }
+
+    // ids names the rows itself; the list parameters would otherwise be silently dropped
+    @GetMapping(params = "ids")
+    public EmployeeLookup getEmployeesByIds(@RequestParam("ids") List<Long> ids,
+                                            @RequestParam(value = "filter", required = false) List<String> filter,
+                                            @RequestParam(value = "sort", required = false) String sort,
+                                            @RequestParam(value = "fields", required = false) List<String> fields,
+                                            @RequestParam(value = "limit", required = false) Integer limit,
+                                            @RequestParam(value = "cursor", required = false) String cursor){
+        if(filter != null || sort != null || fields != null || limit != null || cursor != null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "ids cannot be combined with filter, sort, fields, limit or cursor");
+        }
+        return employeesByIds(ids);
+    }
+
     @GetMapping("{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long id){
-        return employeeService.getEmployeeById(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return employeeService.getEmployeeById(id).map(EmployeeController::withETag).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeById(@PathVariable("id") long id,
+                                                               @RequestParam("fields") List<String> fields){
+        return employeeService.getEmployeeById(id, selectedFields(fields)).map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // If-Match makes the update conditional on the version the client last saw (412 when stale);
+    // without it a concurrent update that wins the race is reported as 409
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long id, @RequestBody Employee employee){
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long id, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         return employeeService.getEmployeeById(id).map(savedEmployee -> {
+            if(ifMatch != null && !matches(ifMatch, savedEmployee.getVersion())){
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+            }
 
             savedEmployee.setFirstName(employee.getFirstName());
             savedEmployee.setLastName(employee.getLastName());
             savedEmployee.setEmail(employee.getEmail());
 
-            return new ResponseEntity<>(employeeService.updateEmployee(savedEmployee),HttpStatus.OK);
+            try {
+                return withETag(employeeService.updateEmployee(savedEmployee));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).<Employee>build();
+            } catch (ResourceNotFoundException e) {
+                // the new email belongs to another active employee
+                throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+            }
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // idempotent sync for integrations: 201 when the employee was created, 204 when it was updated
+    @PutMapping("by-email/{email}")
+    public ResponseEntity<Void> upsertEmployee(@PathVariable("email") String email, @RequestBody Employee employee){
+        if(employee.getEmail() != null && !employee.getEmail().equals(email)){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "email in the body does not match the path");
+        }
+        employee.setEmail(email);
+        requireNames(employee);
+        boolean created = employeeService.upsertByEmail(employee);
+        return ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.NO_CONTENT).build();
+    }
+
+    @PutMapping("by-email")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void upsertEmployees(@RequestBody List<Employee> employees){
+        if(employees.size() > MAX_UPSERT_EMPLOYEES){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_UPSERT_EMPLOYEES + " employees per upsert");
+        }
+        for(Employee employee : employees){
+            if(employee.getEmail() == null || employee.getEmail().isBlank()){
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "email is required");
+            }
+            requireNames(employee);
+        }
+        employeeService.upsertByEmail(employees);
+    }
+
+    private static void requireNames(Employee employee){
+        if(employee.getFirstName() == null || employee.getLastName() == null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "firstName and lastName are required");
+        }
+    }
+
+    private static ResponseEntity<Employee> withETag(Employee employee){
+        return ResponseEntity.ok().eTag(Long.toString(employee.getVersion())).body(employee);
+    }
+
+    private static boolean matches(String ifMatch, long version){
+        for(String tag : ifMatch.split(",")){
+            String value = tag.trim();
+            if(value.equals("*") || value.equals("\"" + version + "\"")){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> selectedFields(List<String> fields){
+        Set<String> selected = new LinkedHashSet<>();
+        for(String field : fields){
+            String name = field.trim();
+            if(!EmployeeRepositoryCustom.SELECTABLE_FIELDS.contains(name)){
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field '" + name + "', expected any of " + EmployeeRepositoryCustom.SELECTABLE_FIELDS);
+            }
+            selected.add(name);
+        }
+        if(selected.isEmpty()){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields must name at least one field");
+        }
+        return selected;
+    }
+
+    // limit and cursor only page filtered or sorted lists; silently returning the whole table would hide that
+    private static void rejectPaging(Integer limit, String cursor){
+        if(limit != null || cursor != null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit and cursor need a filter or sort");
+        }
+    }
+
+    private EmployeeLookup employeesByIds(List<Long> ids){
+        if(ids.size() > EmployeeService.MAX_LOOKUP_IDS){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + EmployeeService.MAX_LOOKUP_IDS + " ids per lookup");
+        }
+        if(ids.contains(null)){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lookup ids must not be null");
+        }
+        return employeeService.getEmployeesByIds(ids);
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long id){
         employeeService.deleteEmployee(id);
@@ -0,0 +1,71 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.model.EmployeeImportJob;
+import net.javaguides.springboot.service.EmployeeImportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+// Bulk CSV imports. The upload is accepted as soon as it is stored; the import runs in the
+// background and is polled through GET {id}, rejected rows are listed by GET {id}/errors.
+@RestController
+@RequestMapping("/api/employees/imports")
+public class EmployeeImportController {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final EmployeeImportService employeeImportService;
+
+    public EmployeeImportController(EmployeeImportService employeeImportService) {
+        this.employeeImportService = employeeImportService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<EmployeeImportJob> startImport(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The uploaded file is empty");
+        }
+        EmployeeImportJob job;
+        try (InputStream content = file.getInputStream()) {
+            job = employeeImportService.startImport(file.getOriginalFilename(), content);
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<EmployeeImportJob> getImport(@PathVariable("id") long id) {
+        return employeeImportService.getImport(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("{id}/resume")
+    public ResponseEntity<EmployeeImportJob> resumeImport(@PathVariable("id") long id) {
+        try {
+            return employeeImportService.resumeImport(id).map(job -> ResponseEntity.accepted().body(job))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("{id}/errors")
+    public ResponseEntity<Resource> getErrorReport(@PathVariable("id") long id) {
+        return employeeImportService.getErrorReport(id)
+                .map(path -> ResponseEntity.ok().contentType(TEXT_CSV).<Resource>body(new FileSystemResource(path)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
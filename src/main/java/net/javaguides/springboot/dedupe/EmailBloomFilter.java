@@ -0,0 +1,144 @@
+package net.javaguides.springboot.dedupe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.sharding.ShardRoutingDataSource;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+
+// Emails known to exist, per tenant. saveEmployee only runs its findByEmail pre-check when this
+// filter says the email might exist; a "definitely absent" answer is exact, so skipping the query
+// cannot let a duplicate through. Until the first build finishes every email counts as possible.
+public class EmailBloomFilter {
+    private static final Logger logger = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private static final String ACTIVE_EMAILS = "select tenant_id, email from employees where status = 'ACTIVE'";
+    private static final int FETCH_SIZE = 1_000;
+
+    private final DataSource dataSource;
+    private final EmailFilterProperties properties;
+    private final Counter skippedChecks;
+    private final Counter databaseChecks;
+    private final Counter falsePositives;
+    private volatile ScalableBloomFilter active;
+    private volatile ScalableBloomFilter building;
+
+    public EmailBloomFilter(DataSource dataSource, EmailFilterProperties properties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.skippedChecks = Counter.builder("employee.email.filter.checks").tag("result", "absent")
+                .register(meterRegistry);
+        this.databaseChecks = Counter.builder("employee.email.filter.checks").tag("result", "maybe")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("employee.email.filter.false.positives").register(meterRegistry);
+        Gauge.builder("employee.email.filter.memory", this, filter -> filter.bitSize() / 8.0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("employee.email.filter.fpp.expected", this, EmailBloomFilter::expectedFpp)
+                .register(meterRegistry);
+        Gauge.builder("employee.email.filter.fpp.observed", this, EmailBloomFilter::observedFpp)
+                .register(meterRegistry);
+    }
+
+    public boolean definitelyAbsent(String email) {
+        ScalableBloomFilter filter = active;
+        if (!properties.isEnabled() || filter == null || filter.mightContain(key(email))) {
+            if (filter != null) {
+                databaseChecks.increment();
+            }
+            return false;
+        }
+        skippedChecks.increment();
+        return true;
+    }
+
+    // the filter said "maybe" but the database had no such email
+    public void recordFalsePositive() {
+        if (active != null) {
+            falsePositives.increment();
+        }
+    }
+
+    public void add(String email) {
+        String key = key(email);
+        // a rebuild in progress must not miss emails written after its scan passed them
+        ScalableBloomFilter pending = building;
+        if (pending != null) {
+            pending.add(key);
+        }
+        ScalableBloomFilter current = active;
+        if (current != null) {
+            current.add(key);
+        }
+    }
+
+    // first run at startup builds the filter, later runs drop emails of deleted employees
+    @Scheduled(fixedDelayString = "${email-filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ScalableBloomFilter filter = new ScalableBloomFilter(properties.getExpectedEmails(), properties.getFpp());
+        building = filter;
+        List<DataSource> targets = dataSource instanceof ShardRoutingDataSource routing
+                ? List.copyOf(routing.getShards().values())
+                : List.of(dataSource);
+        long emails = 0;
+        try {
+            for (DataSource target : targets) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+                jdbcTemplate.setFetchSize(FETCH_SIZE);
+                emails += jdbcTemplate.query(ACTIVE_EMAILS, resultSet -> {
+                    long count = 0;
+                    while (resultSet.next()) {
+                        filter.add(key(resultSet.getString("tenant_id"), resultSet.getString("email")));
+                        count++;
+                    }
+                    return count;
+                });
+            }
+            active = filter;
+        } finally {
+            building = null;
+        }
+        logger.info("Email filter built from {} emails: {} stages, {} KiB", emails, filter.stageCount(),
+                filter.bitSize() / 8 / 1024);
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    private long bitSize() {
+        ScalableBloomFilter filter = active;
+        return filter == null ? 0 : filter.bitSize();
+    }
+
+    private double expectedFpp() {
+        ScalableBloomFilter filter = active;
+        return filter == null ? 0 : filter.expectedFpp();
+    }
+
+    private double observedFpp() {
+        double falsePositiveCount = falsePositives.count();
+        double newEmails = falsePositiveCount + skippedChecks.count();
+        return newEmails == 0 ? 0 : falsePositiveCount / newEmails;
+    }
+
+    private static String key(String email) {
+        return key(TenantContext.getTenantId(), email);
+    }
+
+    // lower-cased so the filter stays a superset under MySQL's case-insensitive collation
+    private static String key(String tenantId, String email) {
+        return tenantId + '\u0000' + (email == null ? "" : email.toLowerCase(Locale.ROOT));
+    }
+}
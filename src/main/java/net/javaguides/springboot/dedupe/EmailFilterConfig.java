@@ -0,0 +1,19 @@
+package net.javaguides.springboot.dedupe;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(EmailFilterProperties.class)
+public class EmailFilterConfig {
+
+    @Bean
+    public EmailBloomFilter emailBloomFilter(DataSource dataSource, EmailFilterProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new EmailBloomFilter(dataSource, properties, meterRegistry);
+    }
+}
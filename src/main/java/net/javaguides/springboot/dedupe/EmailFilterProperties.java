@@ -0,0 +1,20 @@
+package net.javaguides.springboot.dedupe;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("email-filter")
+public class EmailFilterProperties {
+    private boolean enabled = true;
+    // size of the first stage; later stages double when it fills up
+    private long expectedEmails = 100_000;
+    // target false-positive rate across all stages
+    private double fpp = 0.01;
+    // Bloom filters cannot forget, so deleted emails linger as false positives until the next rebuild
+    private Duration rebuildInterval = Duration.ofHours(6);
+}
@@ -0,0 +1,141 @@
+package net.javaguides.springboot.dedupe;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Scalable Bloom filter (Almeida et al.): when a stage reaches its capacity a new stage twice as
+// large with half the false-positive rate is appended, so the compound rate stays below fpp
+// however many keys arrive. Bits are set with CAS on an AtomicLongArray, so adds and lookups
+// never block; only appending a stage swaps the stage list with a CAS.
+public class ScalableBloomFilter {
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final AtomicReference<List<Stage>> stages;
+
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        this.stages = new AtomicReference<>(List.of(new Stage(Math.max(1, initialCapacity), fpp / 2)));
+    }
+
+    public void add(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        Stage stage = writableStage();
+        stage.add(h1, h2);
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        for (Stage stage : stages.get()) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Stage stage : stages.get()) {
+            bits += stage.bits;
+        }
+        return bits;
+    }
+
+    public int stageCount() {
+        return stages.get().size();
+    }
+
+    // current false-positive probability estimated from how full each stage actually is
+    public double expectedFpp() {
+        double allMiss = 1;
+        for (Stage stage : stages.get()) {
+            allMiss *= 1 - stage.expectedFpp();
+        }
+        return 1 - allMiss;
+    }
+
+    private Stage writableStage() {
+        while (true) {
+            List<Stage> current = stages.get();
+            Stage last = current.get(current.size() - 1);
+            if (last.count.get() < last.capacity) {
+                return last;
+            }
+            List<Stage> grown = new ArrayList<>(current);
+            grown.add(new Stage(last.capacity * 2, last.fpp / 2));
+            if (stages.compareAndSet(current, List.copyOf(grown))) {
+                return grown.get(grown.size() - 1);
+            }
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with the murmur3 mixer
+    static long hash(String key, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Stage {
+        final long capacity;
+        final double fpp;
+        final long bits;
+        final int hashes;
+        final AtomicLongArray words;
+        final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double fpp) {
+            this.capacity = capacity;
+            this.fpp = fpp;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / LN2_SQUARED);
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+            this.bits = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / bits, hashes);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeLookup {
+    // in request order, duplicates collapsed
+    private List<Employee> employees;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,17 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePage {
+    private List<Employee> employees;
+    // pass back as ?cursor= with the same filter and sort; null on the last page
+    private String nextCursor;
+}
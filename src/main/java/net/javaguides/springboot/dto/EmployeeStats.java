@@ -0,0 +1,19 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeStats {
+    private long total;
+    // email domain -> active employees, lower-cased
+    private Map<String, Long> byDomain;
+    // null until the first reconciliation against the database has run
+    private Instant reconciledAt;
+}
@@ -0,0 +1,177 @@
+package net.javaguides.springboot.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.grpc.proto.BatchGetEmployeesRequest;
+import net.javaguides.springboot.grpc.proto.BatchGetEmployeesResponse;
+import net.javaguides.springboot.grpc.proto.CreateEmployeeRequest;
+import net.javaguides.springboot.grpc.proto.DeleteEmployeeRequest;
+import net.javaguides.springboot.grpc.proto.DeleteEmployeeResponse;
+import net.javaguides.springboot.grpc.proto.EmployeeMessage;
+import net.javaguides.springboot.grpc.proto.EmployeeServiceGrpc;
+import net.javaguides.springboot.grpc.proto.GetEmployeeRequest;
+import net.javaguides.springboot.grpc.proto.ListEmployeesRequest;
+import net.javaguides.springboot.grpc.proto.UpdateEmployeeRequest;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeQuery;
+import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class EmployeeGrpcService extends EmployeeServiceGrpc.EmployeeServiceImplBase {
+    private final EmployeeService employeeService;
+
+    public EmployeeGrpcService(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @Override
+    public void getEmployee(GetEmployeeRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        Optional<Employee> employee = employeeService.getEmployeeById(request.getId());
+        if (employee.isEmpty()) {
+            responseObserver.onError(notFound(request.getId()));
+            return;
+        }
+        responseObserver.onNext(toMessage(employee.get()));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void batchGetEmployees(BatchGetEmployeesRequest request,
+                                  StreamObserver<BatchGetEmployeesResponse> responseObserver) {
+        if (request.getIdsCount() > EmployeeService.MAX_LOOKUP_IDS) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + EmployeeService.MAX_LOOKUP_IDS + " ids per lookup")
+                    .asRuntimeException());
+            return;
+        }
+        EmployeeLookup lookup = employeeService.getEmployeesByIds(request.getIdsList());
+        BatchGetEmployeesResponse.Builder response = BatchGetEmployeesResponse.newBuilder()
+                .addAllMissingIds(lookup.getMissingIds());
+        lookup.getEmployees().forEach(employee -> response.addEmployees(toMessage(employee)));
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void createEmployee(CreateEmployeeRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        Employee employee = Employee.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .email(request.getEmail())
+                .build();
+        try {
+            responseObserver.onNext(toMessage(employeeService.saveEmployee(employee)));
+            responseObserver.onCompleted();
+        } catch (ResourceNotFoundException e) {
+            responseObserver.onError(Status.ALREADY_EXISTS.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void updateEmployee(UpdateEmployeeRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        // internal callers expect the update to land, so lost optimistic-lock races are retried
+        Optional<Employee> updatedEmployee;
+        try {
+            updatedEmployee = employeeService.updateEmployee(request.getId(), employee -> {
+                employee.setFirstName(request.getFirstName());
+                employee.setLastName(request.getLastName());
+                employee.setEmail(request.getEmail());
+            });
+        } catch (ResourceNotFoundException e) {
+            responseObserver.onError(Status.ALREADY_EXISTS.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        if (updatedEmployee.isEmpty()) {
+            responseObserver.onError(notFound(request.getId()));
+            return;
+        }
+        responseObserver.onNext(toMessage(updatedEmployee.get()));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void deleteEmployee(DeleteEmployeeRequest request, StreamObserver<DeleteEmployeeResponse> responseObserver) {
+        try {
+            employeeService.deleteEmployee(request.getId());
+        } catch (EmptyResultDataAccessException e) {
+            responseObserver.onError(notFound(request.getId()));
+            return;
+        }
+        responseObserver.onNext(DeleteEmployeeResponse.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+
+    // streams keyset pages as the client reads them instead of loading and buffering the whole table
+    @Override
+    public void listEmployees(ListEmployeesRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        ServerCallStreamObserver<EmployeeMessage> observer = (ServerCallStreamObserver<EmployeeMessage>) responseObserver;
+        ListStream stream = new ListStream(observer);
+        observer.setOnCancelHandler(() -> stream.done = true);
+        observer.setOnReadyHandler(stream::drain);
+        stream.drain();
+    }
+
+    // onReady and the rpc itself run on the call's serializing executor, never at the same time
+    private class ListStream {
+        private final ServerCallStreamObserver<EmployeeMessage> observer;
+        private Iterator<Employee> page = Collections.emptyIterator();
+        private String cursor;
+        private boolean lastPage;
+        private volatile boolean done;
+
+        ListStream(ServerCallStreamObserver<EmployeeMessage> observer) {
+            this.observer = observer;
+        }
+
+        void drain() {
+            while (!done && observer.isReady()) {
+                if (!page.hasNext()) {
+                    if (lastPage) {
+                        done = true;
+                        observer.onCompleted();
+                        return;
+                    }
+                    EmployeePage next;
+                    try {
+                        next = employeeService.searchEmployees(
+                                EmployeeQuery.parse(List.of(), null, EmployeeQuery.MAX_LIMIT, cursor));
+                    } catch (RuntimeException e) {
+                        done = true;
+                        observer.onError(Status.INTERNAL.withDescription("Could not read employees").withCause(e)
+                                .asRuntimeException());
+                        return;
+                    }
+                    page = next.getEmployees().iterator();
+                    cursor = next.getNextCursor();
+                    lastPage = cursor == null;
+                    continue;
+                }
+                observer.onNext(toMessage(page.next()));
+            }
+        }
+    }
+
+    static EmployeeMessage toMessage(Employee employee) {
+        return EmployeeMessage.newBuilder()
+                .setId(employee.getId())
+                .setFirstName(employee.getFirstName())
+                .setLastName(employee.getLastName())
+                .setEmail(employee.getEmail())
+                .build();
+    }
+
+    private static RuntimeException notFound(long id) {
+        return Status.NOT_FOUND.withDescription("Employee not found with id: " + id).asRuntimeException();
+    }
+}
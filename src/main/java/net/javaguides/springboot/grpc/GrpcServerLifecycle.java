@@ -0,0 +1,79 @@
+package net.javaguides.springboot.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Runs the gRPC server in the same JVM as the REST API, started and stopped with the context.
+// grpc.server.port=0 picks a free port, a negative port disables the server.
+@Component
+public class GrpcServerLifecycle implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final List<BindableService> services;
+    private final List<ServerInterceptor> interceptors;
+    private final int port;
+    private volatile Server server;
+
+    public GrpcServerLifecycle(List<BindableService> services, List<ServerInterceptor> interceptors,
+                               @Value("${grpc.server.port:9090}") int port) {
+        this.services = services;
+        this.interceptors = interceptors;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        if (port < 0) {
+            return;
+        }
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port);
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, interceptors)));
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server runningServer = server;
+        if (runningServer == null) {
+            return;
+        }
+        runningServer.shutdown();
+        try {
+            if (!runningServer.awaitTermination(10, TimeUnit.SECONDS)) {
+                runningServer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            runningServer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        Server runningServer = server;
+        return runningServer == null ? -1 : runningServer.getPort();
+    }
+}
@@ -0,0 +1,61 @@
+package net.javaguides.springboot.hotkeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The top-K keys by sketch estimate. Keys below the current floor are dropped after one map lookup,
+// so cold keys cost almost nothing; candidates are trimmed back to capacity once they reach twice
+// that, which also raises the floor.
+public class HeavyHitters<K> {
+    private final int capacity;
+    private final ConcurrentMap<K, Long> candidates = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private volatile long floor;
+
+    public HeavyHitters(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(K key, long estimate) {
+        if (estimate <= floor && !candidates.containsKey(key)) {
+            return;
+        }
+        candidates.merge(key, estimate, Math::max);
+        if (candidates.size() >= 2 * capacity) {
+            trim();
+        }
+    }
+
+    public List<Map.Entry<K, Long>> top(int limit) {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+        return entries.subList(0, Math.min(Math.min(limit, capacity), entries.size()));
+    }
+
+    // follows CountMinSketch.decay() so candidates and floor stay comparable with fresh estimates
+    public void decay() {
+        floor >>>= 1;
+        candidates.replaceAll((key, estimate) -> estimate >>> 1);
+        candidates.values().removeIf(estimate -> estimate == 0);
+    }
+
+    private void trim() {
+        if (trimming.compareAndSet(false, true)) {
+            try {
+                List<Map.Entry<K, Long>> entries = new ArrayList<>(candidates.entrySet());
+                entries.sort(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+                for (Map.Entry<K, Long> entry : entries.subList(capacity, entries.size())) {
+                    candidates.remove(entry.getKey(), entry.getValue());
+                }
+                floor = entries.get(capacity - 1).getValue();
+            } finally {
+                trimming.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package net.javaguides.springboot.hotkeys;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(HotKeyProperties.class)
+public class HotKeyConfig {
+
+    @Bean
+    public HotKeyTracker hotKeyTracker(HotKeyProperties properties) {
+        return new HotKeyTracker(properties);
+    }
+
+    @Bean
+    public HotKeysEndpoint hotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+        return new HotKeysEndpoint(hotKeyTracker);
+    }
+
+    @Bean
+    public WebMvcConfigurer hotKeyInterceptorConfigurer(HotKeyTracker hotKeyTracker) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HotKeyInterceptor(hotKeyTracker)).addPathPatterns("/api/employees/**");
+            }
+        };
+    }
+}
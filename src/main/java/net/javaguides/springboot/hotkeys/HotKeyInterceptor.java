@@ -0,0 +1,25 @@
+package net.javaguides.springboot.hotkeys;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.javaguides.springboot.controller.EmployeeController;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Counts EmployeeController requests per handler method; the method name keeps the set of
+// endpoints bounded where raw paths (with ids in them) would not be.
+public class HotKeyInterceptor implements HandlerInterceptor {
+    private final HotKeyTracker tracker;
+
+    public HotKeyInterceptor(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.getBeanType() == EmployeeController.class) {
+            tracker.recordRequest(method.getMethod().getName());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package net.javaguides.springboot.hotkeys;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("hot-keys")
+public class HotKeyProperties {
+    private boolean enabled = true;
+    // sketch rows and counters per row; 4 x 4096 longs is 128 KiB and over-counts by at most
+    // 0.07% of the reads in the window
+    private int depth = 4;
+    private int width = 4096;
+    // employees reported by the hotkeys endpoint
+    private int topK = 50;
+    // counts are halved every window, so a key's count is mostly its last two windows of reads
+    private Duration decayWindow = Duration.ofMinutes(1);
+}
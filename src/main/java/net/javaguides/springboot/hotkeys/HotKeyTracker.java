@@ -0,0 +1,93 @@
+package net.javaguides.springboot.hotkeys;
+
+import net.javaguides.springboot.tenant.TenantContext;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Which employees and endpoints are hot, without logging requests: reads go through a Count-Min
+// sketch into the top-K, requests into one adder per endpoint. Both are rolled over every decay window.
+public class HotKeyTracker {
+    private final HotKeyProperties properties;
+    private final CountMinSketch sketch;
+    private final HeavyHitters<EmployeeKey> heavyHitters;
+    private final ConcurrentMap<String, EndpointCounter> endpoints = new ConcurrentHashMap<>();
+    private volatile long windowStartNanos = System.nanoTime();
+
+    public HotKeyTracker(HotKeyProperties properties) {
+        this.properties = properties;
+        this.sketch = new CountMinSketch(properties.getDepth(), properties.getWidth());
+        this.heavyHitters = new HeavyHitters<>(properties.getTopK());
+    }
+
+    public void recordRead(long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        EmployeeKey key = new EmployeeKey(TenantContext.getTenantId(), id);
+        heavyHitters.offer(key, sketch.add(key.hash()));
+    }
+
+    // endpoint is a handler name, so the map is bounded by the number of handlers
+    public void recordRequest(String endpoint) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, name -> new EndpointCounter()).requests.increment();
+    }
+
+    public long estimate(String tenantId, long id) {
+        return sketch.estimate(new EmployeeKey(tenantId, id).hash());
+    }
+
+    @Scheduled(fixedDelayString = "${hot-keys.decay-window:PT1M}")
+    public void decay() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, now - windowStartNanos) / 1e9;
+        windowStartNanos = now;
+        endpoints.values().forEach(counter -> counter.lastRate = counter.requests.sumThenReset() / seconds);
+        sketch.decay();
+        heavyHitters.decay();
+    }
+
+    // one tenant's share of the top-K, so a report never names another tenant's employees;
+    // endpoint rates carry no ids and stay global
+    public Report report(String tenantId) {
+        Map<String, EndpointRate> rates = new TreeMap<>();
+        endpoints.forEach((name, counter) ->
+                rates.put(name, new EndpointRate(counter.lastRate, counter.requests.sum())));
+        return new Report(tenantId, properties.getDecayWindow().toString(),
+                heavyHitters.top(properties.getTopK()).stream()
+                        .filter(entry -> entry.getKey().tenantId().equals(tenantId))
+                        .map(entry -> new HotEmployee(entry.getKey().id(), entry.getValue()))
+                        .toList(),
+                rates);
+    }
+
+    record EmployeeKey(String tenantId, long id) {
+        long hash() {
+            return tenantId.hashCode() * 0x9E3779B97F4A7C15L ^ id;
+        }
+    }
+
+    private static class EndpointCounter {
+        final LongAdder requests = new LongAdder();
+        volatile double lastRate;
+    }
+
+    // reads are decayed counts, roughly the last two windows
+    public record HotEmployee(long id, long reads) {
+    }
+
+    // perSecond covers the last full window, currentWindow counts the one in progress
+    public record EndpointRate(double perSecond, long currentWindow) {
+    }
+
+    public record Report(String tenantId, String decayWindow, List<HotEmployee> employees, Map<String, EndpointRate> endpoints) {
+    }
+}
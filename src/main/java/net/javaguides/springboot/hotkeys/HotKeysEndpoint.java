@@ -0,0 +1,25 @@
+package net.javaguides.springboot.hotkeys;
+
+import net.javaguides.springboot.tenant.TenantContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+// GET /actuator/hotkeys?tenant=... on the management port; without a tenant, the default one
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+    private final HotKeyTracker tracker;
+
+    public HotKeysEndpoint(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public HotKeyTracker.Report hotKeys(@Nullable String tenant) {
+        String tenantId = tenant != null ? tenant : TenantContext.getTenantId();
+        if (!TenantContext.isValid(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant " + tenantId);
+        }
+        return tracker.report(tenantId);
+    }
+}
@@ -0,0 +1,27 @@
+package net.javaguides.springboot.importer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.dedupe.EmailBloomFilter;
+import net.javaguides.springboot.repository.EmployeeImportJobRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeImportProperties.class)
+public class EmployeeImportConfig {
+
+    @Bean
+    public EmployeeImporter employeeImporter(EmployeeRepository employeeRepository,
+                                             EmployeeImportJobRepository jobRepository,
+                                             PlatformTransactionManager transactionManager,
+                                             EmailBloomFilter emailFilter, EmployeeStatsCounters statsCounters,
+                                             EmployeeImportProperties properties, MeterRegistry meterRegistry) {
+        return new EmployeeImporter(employeeRepository, jobRepository, new TransactionTemplate(transactionManager),
+                emailFilter, statsCounters, properties, meterRegistry);
+    }
+}
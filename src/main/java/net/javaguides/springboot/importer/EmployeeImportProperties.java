@@ -0,0 +1,23 @@
+package net.javaguides.springboot.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties("employee-import")
+public class EmployeeImportProperties {
+    // uploaded files and error reports, one subdirectory per tenant
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "employee-imports");
+    // rows validated, deduplicated and inserted per transaction; also the checkpoint granularity
+    private int chunkSize = 5_000;
+    // emails per IN (...) when checking for existing employees
+    private int dedupeBatchSize = 1_000;
+    // threads validating rows of a chunk
+    private int validationParallelism = Runtime.getRuntime().availableProcessors();
+    // imports running at the same time; later uploads wait in the queue
+    private int concurrentJobs = 2;
+}
@@ -0,0 +1,326 @@
+package net.javaguides.springboot.importer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.dedupe.EmailBloomFilter;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.EmployeeImportJob;
+import net.javaguides.springboot.model.ImportStatus;
+import net.javaguides.springboot.repository.EmployeeImportJobRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+// Streams an uploaded CSV through chunks of employee-import.chunk-size rows: the rows of a chunk
+// are validated in parallel, deduplicated within the chunk and against active employees (skipping
+// the query for emails the Bloom filter rules out), then JDBC batch inserted together with the new
+// checkpoint in one transaction. Rejected rows go to an error report next to the upload.
+public class EmployeeImporter {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeImporter.class);
+
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 1000;
+    private static final String ERROR_REPORT_HEADER = "row,email,error\n";
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeImportJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailBloomFilter emailFilter;
+    private final EmployeeStatsCounters statsCounters;
+    private final EmployeeImportProperties properties;
+    private final ExecutorService jobExecutor;
+    private final ForkJoinPool validationPool;
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+    private final Counter importedRows;
+    private final Counter duplicateRows;
+    private final Counter invalidRows;
+
+    public EmployeeImporter(EmployeeRepository employeeRepository, EmployeeImportJobRepository jobRepository,
+                            TransactionTemplate transactionTemplate, EmailBloomFilter emailFilter,
+                            EmployeeStatsCounters statsCounters, EmployeeImportProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.emailFilter = emailFilter;
+        this.statsCounters = statsCounters;
+        this.properties = properties;
+        this.jobExecutor = Executors.newFixedThreadPool(properties.getConcurrentJobs(), new CustomizableThreadFactory("employee-import-"));
+        this.validationPool = new ForkJoinPool(properties.getValidationParallelism());
+        this.importedRows = Counter.builder("employee.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.duplicateRows = Counter.builder("employee.import.rows").tag("outcome", "duplicate").register(meterRegistry);
+        this.invalidRows = Counter.builder("employee.import.rows").tag("outcome", "invalid").register(meterRegistry);
+    }
+
+    public Path uploadOf(String tenantId, long jobId) {
+        return properties.getDirectory().resolve(tenantId).resolve(jobId + ".csv");
+    }
+
+    public Path errorReportOf(String tenantId, long jobId) {
+        return properties.getDirectory().resolve(tenantId).resolve(jobId + "-errors.csv");
+    }
+
+    // queues the job; false when this instance is already running it
+    public boolean start(String tenantId, long jobId) {
+        String key = tenantId + '/' + jobId;
+        if (!runningJobs.add(key)) {
+            return false;
+        }
+        jobExecutor.execute(() -> {
+            try {
+                TenantContext.runAs(tenantId, () -> runJob(jobId));
+            } finally {
+                runningJobs.remove(key);
+            }
+        });
+        return true;
+    }
+
+    public boolean isRunning(String tenantId, long jobId) {
+        return runningJobs.contains(tenantId + '/' + jobId);
+    }
+
+    // running jobs are interrupted and fail at their last checkpoint, from where they can be resumed
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+    private void runJob(long jobId) {
+        EmployeeImportJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setStatus(ImportStatus.RUNNING);
+        job.setFailureMessage(null);
+        job.setFinishedAt(null);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(Instant.now());
+        }
+        job = jobRepository.save(job);
+        try {
+            importRows(job);
+            job.setStatus(ImportStatus.COMPLETED);
+        } catch (Exception e) {
+            logger.warn("Import {} failed after {} rows", jobId, job.getRowsProcessed(), e);
+            // back to the last committed checkpoint, the in-memory counters may be ahead of it
+            job = jobRepository.findById(jobId).orElse(job);
+            job.setStatus(ImportStatus.FAILED);
+            job.setFailureMessage(abbreviate(String.valueOf(e.getMessage())));
+        }
+        job.setFinishedAt(Instant.now());
+        jobRepository.save(job);
+    }
+
+    private void importRows(EmployeeImportJob job) throws IOException {
+        Path upload = uploadOf(job.getTenantId(), job.getId());
+        Path errorReport = errorReportOf(job.getTenantId(), job.getId());
+        try (FileChannel errors = FileChannel.open(errorReport, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             Writer errorWriter = new BufferedWriter(Channels.newWriter(errors, StandardCharsets.UTF_8));
+             CsvReader reader = new CsvReader(Files.newBufferedReader(upload, StandardCharsets.UTF_8))) {
+            // drop whatever was written after the checkpoint by a run that did not commit it
+            errors.truncate(job.getErrorReportBytes());
+            errors.position(job.getErrorReportBytes());
+            if (job.getErrorReportBytes() == 0) {
+                errorWriter.write(ERROR_REPORT_HEADER);
+            }
+
+            Columns columns = Columns.of(reader.next());
+            long row = 0;
+            while (row < job.getRowsProcessed() && reader.next() != null) {
+                row++;
+            }
+            while (true) {
+                List<RawRow> chunk = new ArrayList<>(properties.getChunkSize());
+                List<String> record;
+                while (chunk.size() < properties.getChunkSize() && (record = reader.next()) != null) {
+                    row++;
+                    if (!(record.size() == 1 && record.get(0).isBlank())) {
+                        chunk.add(new RawRow(row, record));
+                    }
+                }
+                if (chunk.isEmpty() && row == job.getRowsProcessed()) {
+                    return;
+                }
+                importChunk(job, columns, chunk, row, errorWriter, errors);
+            }
+        }
+    }
+
+    private void importChunk(EmployeeImportJob job, Columns columns, List<RawRow> chunk, long lastRow,
+                             Writer errorWriter, FileChannel errors) throws IOException {
+        List<ImportRow> rows = validationPool.submit(() -> chunk.parallelStream()
+                .map(raw -> validate(columns, raw))
+                .toList()).join();
+
+        long invalid = 0;
+        long duplicates = 0;
+        List<ImportRow> rejected = new ArrayList<>();
+        Map<String, ImportRow> unique = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                invalid++;
+                rejected.add(row);
+                continue;
+            }
+            ImportRow first = unique.putIfAbsent(row.email().toLowerCase(Locale.ROOT), row);
+            if (first != null) {
+                duplicates++;
+                rejected.add(row.rejected("duplicate of row " + first.row()));
+            }
+        }
+
+        Set<String> existing = existingEmails(unique.values());
+        List<Employee> employees = new ArrayList<>(unique.size());
+        for (ImportRow row : unique.values()) {
+            if (existing.contains(row.email().toLowerCase(Locale.ROOT))) {
+                duplicates++;
+                rejected.add(row.rejected("employee with this email already exists"));
+            } else {
+                employees.add(Employee.builder().firstName(row.firstName()).lastName(row.lastName())
+                        .email(row.email()).build());
+            }
+        }
+        rejected.sort(Comparator.comparingLong(ImportRow::row));
+        for (ImportRow row : rejected) {
+            writeError(errorWriter, row.row(), row.email(), row.error());
+        }
+        errorWriter.flush();
+
+        job.setRowsProcessed(lastRow);
+        job.setImported(job.getImported() + employees.size());
+        job.setDuplicates(job.getDuplicates() + duplicates);
+        job.setInvalid(job.getInvalid() + invalid);
+        job.setErrorReportBytes(errors.position());
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeRepository.insertAll(employees);
+            jobRepository.save(job);
+        });
+
+        for (Employee employee : employees) {
+            emailFilter.add(employee.getEmail());
+            statsCounters.onCreated(employee.getEmail());
+        }
+        importedRows.increment(employees.size());
+        duplicateRows.increment(duplicates);
+        invalidRows.increment(invalid);
+    }
+
+    // lower-cased emails of the rows that already belong to an active employee
+    private Set<String> existingEmails(Iterable<ImportRow> rows) {
+        List<String> candidates = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (!emailFilter.definitelyAbsent(row.email())) {
+                candidates.add(row.email());
+            }
+        }
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += properties.getDedupeBatchSize()) {
+            List<String> batch = candidates.subList(from, Math.min(from + properties.getDedupeBatchSize(), candidates.size()));
+            for (String email : employeeRepository.findExistingEmails(batch)) {
+                existing.add(email.toLowerCase(Locale.ROOT));
+            }
+        }
+        for (String candidate : candidates) {
+            if (!existing.contains(candidate.toLowerCase(Locale.ROOT))) {
+                emailFilter.recordFalsePositive();
+            }
+        }
+        return existing;
+    }
+
+    private static ImportRow validate(Columns columns, RawRow raw) {
+        List<String> fields = raw.fields();
+        if (fields.size() < columns.width()) {
+            return new ImportRow(raw.row(), null, null, null, "expected " + columns.width() + " columns, found " + fields.size());
+        }
+        String firstName = fields.get(columns.firstName()).trim();
+        String lastName = fields.get(columns.lastName()).trim();
+        String email = fields.get(columns.email()).trim();
+        String error = null;
+        if (firstName.isEmpty() || lastName.isEmpty() || email.isEmpty()) {
+            error = "firstName, lastName and email are required";
+        } else if (firstName.length() > MAX_FIELD_LENGTH || lastName.length() > MAX_FIELD_LENGTH
+                || email.length() > MAX_FIELD_LENGTH) {
+            error = "fields are limited to " + MAX_FIELD_LENGTH + " characters";
+        } else if (!EMAIL.matcher(email).matches()) {
+            error = "invalid email";
+        }
+        return new ImportRow(raw.row(), firstName, lastName, email, error);
+    }
+
+    private static void writeError(Writer writer, long row, String email, String error) throws IOException {
+        writer.write(Long.toString(row));
+        writer.write(',');
+        writer.write(quote(email == null ? "" : email));
+        writer.write(',');
+        writer.write(quote(error));
+        writer.write('\n');
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= MAX_FAILURE_MESSAGE_LENGTH ? message : message.substring(0, MAX_FAILURE_MESSAGE_LENGTH);
+    }
+
+    private record RawRow(long row, List<String> fields) {
+    }
+
+    private record ImportRow(long row, String firstName, String lastName, String email, String error) {
+        ImportRow rejected(String reason) {
+            return new ImportRow(row, firstName, lastName, email, reason);
+        }
+    }
+
+    // positions of the required columns, matched case-insensitively ignoring '_', '-' and spaces
+    private record Columns(int firstName, int lastName, int email, int width) {
+        static Columns of(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            List<String> names = new ArrayList<>(header.size());
+            for (String name : header) {
+                names.add(name.replace("\uFEFF", "").replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT));
+            }
+            int firstName = names.indexOf("firstname");
+            int lastName = names.indexOf("lastname");
+            int email = names.indexOf("email");
+            if (firstName < 0 || lastName < 0 || email < 0) {
+                throw new IllegalArgumentException("The header must name firstName, lastName and email columns");
+            }
+            return new Columns(firstName, lastName, email, Math.max(firstName, Math.max(lastName, email)) + 1);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package net.javaguides.springboot.jdbc;
+
+import java.sql.Connection;
+
+// Sees every connection acquisition and statement execution on the DataSource bean (see JdbcListeners).
+// Each method wraps the call: it must proceed exactly once, or throw instead of proceeding.
+public interface JdbcListener {
+
+    default Connection onConnection(Call<Connection> acquire) throws Throwable {
+        return acquire.proceed();
+    }
+
+    default Object onExecute(Execution execution, Call<Object> execute) throws Throwable {
+        return execute.proceed();
+    }
+
+    @FunctionalInterface
+    interface Call<T> {
+        T proceed() throws Throwable;
+    }
+
+    // sql is null for a batch of plain statements; batchSize is 0 unless the call executes a batch
+    record Execution(String sql, String operation, int batchSize) {
+    }
+}
@@ -0,0 +1,16 @@
+package net.javaguides.springboot.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JdbcListenerConfig {
+
+    // static: post-processors are created before the rest of the configuration; tests that only need
+    // some listeners (@DataJpaTest) can @Import(JdbcListeners.class) together with them
+    @Bean
+    public static JdbcListeners jdbcListeners(ObjectProvider<JdbcListener> listeners) {
+        return new JdbcListeners(listeners);
+    }
+}
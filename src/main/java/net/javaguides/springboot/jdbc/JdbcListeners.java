@@ -0,0 +1,161 @@
+package net.javaguides.springboot.jdbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// The one proxy layer over the DataSource bean: connections and statements are wrapped once, and every
+// JdbcListener bean (tracing, query counting) sees each call through it, in @Order. The DataSource is
+// proxied by subclass (or gets one more advice if it is already a proxy), so code that checks for
+// HikariDataSource or ShardRoutingDataSource still sees one.
+public class JdbcListeners implements BeanPostProcessor {
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<JdbcListener> listenerProvider;
+    // resolved on first use: listeners are ordinary beans, created after this post-processor
+    private volatile List<JdbcListener> listeners;
+
+    public JdbcListeners(ObjectProvider<JdbcListener> listenerProvider) {
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        MethodInterceptor onConnection = invocation -> {
+            if (!invocation.getMethod().getName().equals("getConnection")) {
+                return invocation.proceed();
+            }
+            JdbcListener.Call<Connection> call = () -> (Connection) invocation.proceed();
+            List<JdbcListener> current = listeners();
+            for (int i = current.size() - 1; i >= 0; i--) {
+                JdbcListener listener = current.get(i);
+                JdbcListener.Call<Connection> next = call;
+                call = () -> listener.onConnection(next);
+            }
+            Connection connection = call.proceed();
+            return wrap(Connection.class, new ConnectionHandler(connection));
+        };
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(onConnection);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(onConnection);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    // the leading keyword, lower case: select, insert, update, ...; "batch" when there is no SQL
+    public static String operation(String sql) {
+        if (sql == null) {
+            return "batch";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end > 0 ? trimmed.substring(0, end).toLowerCase(Locale.ROOT) : "other";
+    }
+
+    private List<JdbcListener> listeners() {
+        List<JdbcListener> current = listeners;
+        if (current == null) {
+            current = listenerProvider.orderedStream().toList();
+            listeners = current;
+        }
+        return current;
+    }
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcListeners.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcListeners.invoke(method, connection, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, new StatementHandler(statement, sql));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, new StatementHandler(statement, sql));
+            }
+            if (result instanceof Statement statement) {
+                return wrap(Statement.class, new StatementHandler(statement, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private int batched;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batched++;
+            }
+            if (!EXECUTE_METHODS.contains(name)) {
+                return JdbcListeners.invoke(method, statement, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            int batchSize = 0;
+            if (name.contains("Batch")) {
+                batchSize = batched;
+                batched = 0;
+            }
+            JdbcListener.Execution execution = new JdbcListener.Execution(sql, operation(sql), batchSize);
+            JdbcListener.Call<Object> call = () -> JdbcListeners.invoke(method, statement, args);
+            List<JdbcListener> current = listeners();
+            for (int i = current.size() - 1; i >= 0; i--) {
+                JdbcListener listener = current.get(i);
+                JdbcListener.Call<Object> next = call;
+                call = () -> listener.onExecute(execution, next);
+            }
+            return call.proceed();
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package net.javaguides.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.annotations.Where;
+
+import java.time.Instant;
 
 @Setter
 @Getter
@@ -18,8 +28,13 @@ import lombok.Setter;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name ="employees")
+@Table(name ="employees", uniqueConstraints = @UniqueConstraint(name = Employee.ACTIVE_EMAIL_KEY,
+        columnNames = {"tenant_id", "active_email"}))
+// terminated rows wait in the table for ArchiveMover; every finder only sees the active set
+@Where(clause = "status = 'ACTIVE'")
 public class Employee {
+    public static final String ACTIVE_EMAIL_KEY = "uk_employees_tenant_active_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -29,4 +44,28 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    // the email while the row is active, null once terminated: unique per tenant without blocking a
+    // re-hire, and the conflict key of EmployeeRepository.upsertByEmail
+    @JsonIgnore
+    @Column(name = "active_email", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (case when status = 'ACTIVE' then email end)")
+    private String activeEmail;
+    // filled in by Hibernate from TenantContext on insert and added to every query
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, length = 64, updatable = false)
+    private String tenantId;
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, length = 16)
+    private EmployeeStatus status = EmployeeStatus.ACTIVE;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "terminated_at")
+    private Instant terminatedAt;
+    // optimistic lock, also served as the ETag of GET/PUT /api/employees/{id}
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private long version;
 }
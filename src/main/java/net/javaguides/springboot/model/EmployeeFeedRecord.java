@@ -0,0 +1,35 @@
+package net.javaguides.springboot.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+// One row of the HR feed, staged by the reconcile job for the duration of a run. Written and read
+// with plain SQL; mapped so the ddl-auto schema of the dev profile has the table as well.
+@Getter
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "employee_feed", indexes = @Index(name = "idx_employee_feed_instance_email", columnList = "job_instance_id, email"))
+public class EmployeeFeedRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Column(name = "job_instance_id", nullable = false)
+    private long jobInstanceId;
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+    @Column(nullable = false)
+    private String email;
+    @Column(name = "first_name", nullable = false)
+    private String firstName;
+    @Column(name = "last_name", nullable = false)
+    private String lastName;
+}
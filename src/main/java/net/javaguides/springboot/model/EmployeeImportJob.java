@@ -0,0 +1,63 @@
+package net.javaguides.springboot.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+// Progress of one bulk import. rowsProcessed is the checkpoint: it is committed in the same
+// transaction as the chunk it covers, so a resumed job continues exactly after the last chunk.
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_import_jobs")
+public class EmployeeImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @JsonIgnore
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, length = 64, updatable = false)
+    private String tenantId;
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportStatus status;
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+    @Column(nullable = false)
+    private long imported;
+    @Column(nullable = false)
+    private long duplicates;
+    @Column(nullable = false)
+    private long invalid;
+    // length of the error report at the checkpoint; a resumed job truncates back to it
+    @JsonIgnore
+    @Column(name = "error_report_bytes", nullable = false)
+    private long errorReportBytes;
+    @Column(name = "failure_message", length = 1000)
+    private String failureMessage;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "started_at")
+    private Instant startedAt;
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
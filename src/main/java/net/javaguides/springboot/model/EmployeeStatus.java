@@ -0,0 +1,5 @@
+package net.javaguides.springboot.model;
+
+public enum EmployeeStatus {
+    ACTIVE, TERMINATED
+}
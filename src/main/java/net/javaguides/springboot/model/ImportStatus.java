@@ -0,0 +1,8 @@
+package net.javaguides.springboot.model;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,53 @@
+package net.javaguides.springboot.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.javaguides.springboot.EmployeeOperation")
+@Label("Employee Operation")
+@Category({"Employee Management", "Service"})
+@Description("An EmployeeService call; the event duration is the call's")
+@StackTrace(false)
+public class EmployeeOperationEvent extends Event {
+    // the event of the EmployeeService call running on this thread, so the service can add detail
+    private static final ThreadLocal<EmployeeOperationEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Tenant")
+    String tenant;
+
+    @Label("Rows")
+    @Description("Employees returned or written")
+    int rows;
+
+    @Label("Cache")
+    @Description("hit or miss when the employee cache was consulted")
+    String cache;
+
+    public static void recordCacheHit(boolean hit) {
+        EmployeeOperationEvent event = CURRENT.get();
+        if (event != null) {
+            event.cache = hit ? "hit" : "miss";
+        }
+    }
+
+    static EmployeeOperationEvent enter(EmployeeOperationEvent event) {
+        EmployeeOperationEvent outer = CURRENT.get();
+        CURRENT.set(event);
+        return outer;
+    }
+
+    static void exit(EmployeeOperationEvent outer) {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+}
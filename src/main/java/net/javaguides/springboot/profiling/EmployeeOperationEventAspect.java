@@ -0,0 +1,62 @@
+package net.javaguides.springboot.profiling;
+
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// One EmployeeOperationEvent per EmployeeService call. When no recording has the event enabled the
+// cost is the isEnabled() check, which the JIT reduces to a flag test.
+@Aspect
+public class EmployeeOperationEventAspect {
+
+    @Around("execution(* net.javaguides.springboot.service.EmployeeService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        EmployeeOperationEvent event = new EmployeeOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        EmployeeOperationEvent outer = EmployeeOperationEvent.enter(event);
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            EmployeeOperationEvent.exit(outer);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = joinPoint.getSignature().getName();
+                event.tenant = TenantContext.getTenantId();
+                event.rows = rows(result, joinPoint.getArgs());
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result, Object[] args) {
+        if (result instanceof Collection<?> employees) {
+            return employees.size();
+        }
+        if (result instanceof Optional<?> employee) {
+            return employee.isPresent() ? 1 : 0;
+        }
+        if (result instanceof EmployeePage page) {
+            return page.getEmployees().size();
+        }
+        if (result instanceof EmployeeLookup lookup) {
+            return lookup.getEmployees().size();
+        }
+        if (result instanceof Employee) {
+            return 1;
+        }
+        // writes that return nothing about the rows: count what was passed in
+        return args.length > 0 && args[0] instanceof Collection<?> employees ? employees.size() : 0;
+    }
+}
@@ -0,0 +1,31 @@
+package net.javaguides.springboot.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.javaguides.springboot.EmployeeRequest")
+@Label("Employee Request")
+@Category({"Employee Management", "HTTP"})
+@Description("A request handled by EmployeeController, from the filter chain to the last byte written")
+@StackTrace(false)
+public class EmployeeRequestEvent extends Event {
+    @Label("Endpoint")
+    @Description("EmployeeController handler method")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Status")
+    int status;
+
+    @Label("Response Bytes")
+    @Description("Body bytes written by the application, before any response compression")
+    @DataAmount
+    long bytes;
+}
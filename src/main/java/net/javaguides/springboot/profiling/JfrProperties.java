@@ -0,0 +1,30 @@
+package net.javaguides.springboot.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("jfr")
+public class JfrProperties {
+    // keep a recording running from startup, so an incident can be dumped after the fact
+    private boolean startOnStartup = false;
+    // built-in JFR settings the profile starts from; "default" stays under 1% overhead
+    private String baseSettings = "default";
+    // the recording keeps at most this much history in its ring buffer
+    private Duration maxAge = Duration.ofMinutes(30);
+    private long maxSizeBytes = 256L * 1024 * 1024;
+    // where dumps are written; only the newest maxDumps files are kept
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "employee-jfr");
+    private int maxDumps = 5;
+    // Employee Operation and Request events faster than this are not recorded
+    private Duration eventThreshold = Duration.ofMillis(1);
+    // sampled allocations per second; default settings use 20, profile uses 300
+    private int allocationSamplesPerSecond = 150;
+    // lock waits and parks shorter than this are not recorded
+    private Duration lockThreshold = Duration.ofMillis(10);
+}
@@ -0,0 +1,151 @@
+package net.javaguides.springboot.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// GET /actuator/jfr for the state of the recording, POST /actuator/jfr/{start|dump|stop}. A dump
+// copies the ring buffer to jfr.directory and leaves the recording running; stop dumps and ends it.
+// Older dumps beyond jfr.max-dumps are deleted, so repeated dumps cannot fill the disk.
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+    static final String RECORDING_NAME = "employee-profile";
+    private static final DateTimeFormatter FILE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final JfrProperties properties;
+    private Recording recording;
+
+    public JfrRecordingEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public synchronized RecordingStatus status() {
+        return status(null);
+    }
+
+    @WriteOperation
+    public synchronized RecordingStatus control(@Selector String action) throws IOException, ParseException {
+        return switch (action) {
+            case "start" -> start();
+            case "dump" -> status(dump());
+            case "stop" -> stop();
+            default -> throw new IllegalArgumentException("Unknown action " + action + ", use start, dump or stop");
+        };
+    }
+
+    public synchronized RecordingStatus start() throws IOException, ParseException {
+        if (isRunning()) {
+            return status(null);
+        }
+        recording = new Recording(settings());
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSizeBytes());
+        recording.start();
+        return status(null);
+    }
+
+    public synchronized RecordingStatus stop() throws IOException {
+        if (!isRunning()) {
+            return status(null);
+        }
+        Path file = dump();
+        recording.stop();
+        recording.close();
+        RecordingStatus status = new RecordingStatus("STOPPED", null, file != null ? file.toString() : null, 0);
+        recording = null;
+        return status;
+    }
+
+    private Path dump() throws IOException {
+        if (!isRunning()) {
+            return null;
+        }
+        Files.createDirectories(properties.getDirectory());
+        String name = RECORDING_NAME + "-" + FILE_TIME.format(Instant.now());
+        Path file = properties.getDirectory().resolve(name + ".jfr");
+        for (int i = 1; Files.exists(file); i++) {
+            file = properties.getDirectory().resolve(name + "-" + i + ".jfr");
+        }
+        recording.dump(file);
+        deleteOldDumps();
+        return file;
+    }
+
+    private void deleteOldDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            dumps = files.filter(file -> file.getFileName().toString().startsWith(RECORDING_NAME + "-"))
+                    .sorted(Comparator.comparing(JfrRecordingEndpoint::lastModified)
+                            .thenComparing(Path::getFileName).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(Math.max(properties.getMaxDumps(), 1), dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // the base settings tuned for incident work: our events, sampled allocations and longer lock waits
+    Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(properties.getBaseSettings())
+                .getSettings());
+        String eventThreshold = properties.getEventThreshold().toMillis() + " ms";
+        String lockThreshold = properties.getLockThreshold().toMillis() + " ms";
+        for (String event : new String[]{"net.javaguides.springboot.EmployeeOperation",
+                "net.javaguides.springboot.EmployeeRequest"}) {
+            settings.put(event + "#enabled", "true");
+            settings.put(event + "#threshold", eventThreshold);
+        }
+        settings.put("jdk.ObjectAllocationSample#enabled", "true");
+        settings.put("jdk.ObjectAllocationSample#throttle", properties.getAllocationSamplesPerSecond() + "/s");
+        for (String event : new String[]{"jdk.JavaMonitorEnter", "jdk.JavaMonitorWait", "jdk.ThreadPark"}) {
+            settings.put(event + "#enabled", "true");
+            settings.put(event + "#threshold", lockThreshold);
+        }
+        return settings;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private RecordingStatus status(Path dumped) {
+        if (!isRunning()) {
+            return new RecordingStatus("STOPPED", null, null, 0);
+        }
+        return new RecordingStatus(recording.getState().name(), recording.getStartTime(),
+                dumped != null ? dumped.toString() : null, recording.getSize());
+    }
+
+    public record RecordingStatus(String state, Instant startedAt, String dumpFile, long sizeBytes) {
+    }
+}
@@ -0,0 +1,42 @@
+package net.javaguides.springboot.profiling;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    public EmployeeOperationEventAspect employeeOperationEventAspect() {
+        return new EmployeeOperationEventAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<EmployeeRequestEventFilter> employeeRequestEventFilter() {
+        FilterRegistrationBean<EmployeeRequestEventFilter> registration =
+                new FilterRegistrationBean<>(new EmployeeRequestEventFilter());
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // outermost, so the event also covers rate limiting and the other filters
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "stop")
+    public JfrRecordingEndpoint jfrRecordingEndpoint(JfrProperties properties) {
+        return new JfrRecordingEndpoint(properties);
+    }
+
+    @Bean
+    public ApplicationRunner jfrContinuousRecording(JfrRecordingEndpoint endpoint, JfrProperties properties) {
+        return args -> {
+            if (properties.isStartOnStartup()) {
+                endpoint.start();
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package net.javaguides.springboot.querycount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Statements executed in one scope (a request, a test) on one thread. A batch counts once: it is one
+// round trip, which is what an N+1 multiplies. Scopes nest, and a statement counts in every open scope.
+public class QueryCount {
+    // the first statements are kept so a report can show what ran
+    static final int MAX_KEPT_STATEMENTS = 50;
+
+    private final int budget;
+    private final boolean rejectOverBudget;
+    final QueryCount outer;
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int others;
+    private final List<String> statements = new ArrayList<>();
+
+    QueryCount(int budget, boolean rejectOverBudget, QueryCount outer) {
+        this.budget = budget;
+        this.rejectOverBudget = rejectOverBudget;
+        this.outer = outer;
+    }
+
+    // operation as parsed by JdbcListeners.operation
+    void record(String operation, String sql) {
+        switch (operation) {
+            case "select", "with" -> selects++;
+            case "insert" -> inserts++;
+            case "update", "merge" -> updates++;
+            case "delete" -> deletes++;
+            default -> others++;
+        }
+        if (statements.size() < MAX_KEPT_STATEMENTS) {
+            statements.add(sql);
+        }
+    }
+
+    void checkBudget() {
+        if (rejectOverBudget && isOverBudget()) {
+            throw new StatementBudgetExceededException(budget);
+        }
+    }
+
+    public boolean isOverBudget() {
+        return budget > 0 && getTotal() > budget;
+    }
+
+    public int getSelects() {
+        return selects;
+    }
+
+    public int getInserts() {
+        return inserts;
+    }
+
+    public int getUpdates() {
+        return updates;
+    }
+
+    public int getDeletes() {
+        return deletes;
+    }
+
+    public int getTotal() {
+        return selects + inserts + updates + deletes + others;
+    }
+
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    public void reset() {
+        selects = inserts = updates = deletes = others = 0;
+        statements.clear();
+    }
+
+    @Override
+    public String toString() {
+        return getTotal() + " statements (" + selects + " select, " + inserts + " insert, " + updates + " update, "
+                + deletes + " delete, " + others + " other)";
+    }
+}
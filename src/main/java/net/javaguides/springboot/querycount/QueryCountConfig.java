@@ -0,0 +1,30 @@
+package net.javaguides.springboot.querycount;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(StatementBudgetProperties.class)
+public class QueryCountConfig {
+
+    // tests that only need the counting (@DataJpaTest) can @Import({JdbcListeners.class, QueryCountingListener.class})
+    @Bean
+    public QueryCountingListener queryCountingListener() {
+        return new QueryCountingListener();
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(StatementBudgetProperties properties,
+                                                                               MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new StatementBudgetFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // inside the rate limit, so shed requests are not counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
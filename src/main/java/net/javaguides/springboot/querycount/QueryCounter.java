@@ -0,0 +1,42 @@
+package net.javaguides.springboot.querycount;
+
+// The scopes open on the current thread. Statements run while no scope is open are not counted, so
+// the cost outside requests and tests is one ThreadLocal read per statement.
+public final class QueryCounter {
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static QueryCount begin() {
+        return begin(0, false);
+    }
+
+    // budget 0 means unlimited; with rejectOverBudget the statement past the budget throws
+    public static QueryCount begin(int budget, boolean rejectOverBudget) {
+        QueryCount count = new QueryCount(budget, rejectOverBudget, CURRENT.get());
+        CURRENT.set(count);
+        return count;
+    }
+
+    public static void end(QueryCount count) {
+        if (count.outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(count.outer);
+        }
+    }
+
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    static void record(String operation, String sql) {
+        for (QueryCount count = CURRENT.get(); count != null; count = count.outer) {
+            count.record(operation, sql);
+        }
+        for (QueryCount count = CURRENT.get(); count != null; count = count.outer) {
+            count.checkBudget();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package net.javaguides.springboot.querycount;
+
+import net.javaguides.springboot.jdbc.JdbcListener;
+
+// Counts every statement executed through the DataSource bean into the QueryCounter scopes of the
+// calling thread.
+public class QueryCountingListener implements JdbcListener {
+
+    @Override
+    public Object onExecute(Execution execution, Call<Object> execute) throws Throwable {
+        QueryCounter.record(execution.operation(), execution.sql());
+        return execute.proceed();
+    }
+}
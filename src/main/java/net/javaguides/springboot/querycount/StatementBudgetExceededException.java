@@ -0,0 +1,12 @@
+package net.javaguides.springboot.querycount;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// a request that needs this many statements is a bug (usually an N+1), not load
+public class StatementBudgetExceededException extends ResponseStatusException {
+
+    public StatementBudgetExceededException(int budget) {
+        super(HttpStatus.INTERNAL_SERVER_ERROR, "Request exceeded its budget of " + budget + " SQL statements");
+    }
+}
@@ -0,0 +1,49 @@
+package net.javaguides.springboot.querycount;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Gives each /api/employees request a budget of SQL statements, to catch N+1 queries in production
+// the way QueryCountExtension catches them in tests.
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private final StatementBudgetProperties properties;
+    private final Counter exceeded;
+
+    public StatementBudgetFilter(StatementBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.exceeded = Counter.builder("statement.budget.exceeded").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return properties.getMode() == StatementBudgetProperties.Mode.OFF;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean reject = properties.getMode() == StatementBudgetProperties.Mode.REJECT;
+        QueryCount count = QueryCounter.begin(properties.getMaxStatements(), reject);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.end(count);
+            if (count.isOverBudget()) {
+                exceeded.increment();
+                logger.warn("{} {} needed {}, over its budget of {}: {}", request.getMethod(), request.getRequestURI(),
+                        count, properties.getMaxStatements(), count.getStatements());
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package net.javaguides.springboot.querycount;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("statement-budget")
+public class StatementBudgetProperties {
+    private Mode mode = Mode.LOG;
+    // SQL statements one /api/employees request may execute; a batch counts once
+    private int maxStatements = 20;
+
+    public enum Mode {
+        // not counted
+        OFF,
+        // the request completes, then a warning lists its statements
+        LOG,
+        // the statement past the budget fails, which rolls the request back with a 500
+        REJECT
+    }
+}
@@ -0,0 +1,105 @@
+package net.javaguides.springboot.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sheds requests to /api/employees that exceed the client's budget with 429 and Retry-After.
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String LIST_PATH = "/api/employees";
+    private static final String ARCHIVE_PATH = "/api/employees/archive";
+
+    private final RateLimitProperties properties;
+    private final Limit defaultLimit;
+    private final Limit listLimit;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.defaultLimit = new Limit("default", properties.getDefaultBudget(), properties, meterRegistry);
+        this.listLimit = new Limit("list", properties.getListBudget(), properties, meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith(LIST_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Limit limit = isListRequest(request) ? listLimit : defaultLimit;
+        long waitNanos = limit.registry.tryAcquire(clientOf(request), System.nanoTime());
+        if (waitNanos > 0) {
+            limit.rejected.increment();
+            long retryAfterSeconds = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Rate limit exceeded, retry in " + retryAfterSeconds + "s");
+            return;
+        }
+        limit.allowed.increment();
+        limit.inFlight.incrementAndGet();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.inFlight.decrementAndGet();
+        }
+    }
+
+    // every client starts again with a full bucket
+    public void reset() {
+        defaultLimit.registry.clear();
+        listLimit.registry.clear();
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.getClientHeader());
+        return apiKey != null && properties.getApiKeys().contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static boolean isListRequest(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!"GET".equals(request.getMethod())) {
+            return false;
+        }
+        if (path.startsWith(ARCHIVE_PATH)) {
+            return true;
+        }
+        return (path.equals(LIST_PATH) || path.equals(LIST_PATH + "/")) && request.getParameter("ids") == null;
+    }
+
+    private static class Limit {
+        final RateLimiterRegistry registry;
+        final Counter allowed;
+        final Counter rejected;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        Limit(String budget, RateLimitProperties.Budget limits, RateLimitProperties properties,
+              MeterRegistry meterRegistry) {
+            this.registry = new RateLimiterRegistry(limits, properties.getMaxTrackedClients());
+            this.allowed = Counter.builder("ratelimit.requests").tag("budget", budget).tag("outcome", "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("ratelimit.requests").tag("budget", budget).tag("outcome", "rejected")
+                    .register(meterRegistry);
+            Gauge.builder("ratelimit.clients.tracked", registry, RateLimiterRegistry::trackedClients)
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+            Gauge.builder("ratelimit.requests.inflight", inFlight, AtomicInteger::get)
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package net.javaguides.springboot.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties("ratelimit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // clients are told apart by this header, falling back to the remote address
+    private String clientHeader = "X-API-Key";
+    // only these keys get a bucket of their own; any other header value is ignored, otherwise a client
+    // could send a fresh key per request and never be limited
+    private Set<String> apiKeys = new LinkedHashSet<>();
+    // upper bound on per-client buckets kept in memory
+    private int maxTrackedClients = 10_000;
+    private Budget defaultBudget = new Budget(200, 400);
+    // stricter budget for the full-table endpoints (GET /api/employees without ids, archive search)
+    private Budget listBudget = new Budget(5, 10);
+
+    @Getter
+    @Setter
+    public static class Budget {
+        private double permitsPerSecond;
+        private int burst;
+
+        public Budget() {
+        }
+
+        public Budget(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+}
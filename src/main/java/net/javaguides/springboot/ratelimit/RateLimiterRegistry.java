@@ -0,0 +1,58 @@
+package net.javaguides.springboot.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Per-client buckets for one budget. The map never grows past maxTrackedClients: full (idle)
+// buckets are swept first, and clients that still do not fit share a single overflow bucket.
+public class RateLimiterRegistry {
+    private final RateLimitProperties.Budget budget;
+    private final int maxTrackedClients;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimiterRegistry(RateLimitProperties.Budget budget, int maxTrackedClients) {
+        this.budget = budget;
+        this.maxTrackedClients = maxTrackedClients;
+        this.overflowBucket = new TokenBucket(budget.getPermitsPerSecond(), budget.getBurst(), System.nanoTime());
+    }
+
+    public long tryAcquire(String client, long nowNanos) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = newBucket(client, nowNanos);
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+
+    private TokenBucket newBucket(String client, long nowNanos) {
+        if (buckets.size() >= maxTrackedClients) {
+            sweepFullBuckets(nowNanos);
+            if (buckets.size() >= maxTrackedClients) {
+                return overflowBucket;
+            }
+        }
+        return buckets.computeIfAbsent(client,
+                key -> new TokenBucket(budget.getPermitsPerSecond(), budget.getBurst(), nowNanos));
+    }
+
+    private void sweepFullBuckets(long nowNanos) {
+        if (sweeping.compareAndSet(false, true)) {
+            try {
+                buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
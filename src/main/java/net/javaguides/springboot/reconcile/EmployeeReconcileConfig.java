@@ -0,0 +1,339 @@
+package net.javaguides.springboot.reconcile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.cache.EmployeeCache;
+import net.javaguides.springboot.dedupe.EmailBloomFilter;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.separator.DefaultRecordSeparatorPolicy;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+// Nightly reconciliation of the employees table against the HR feed, as a restartable Spring Batch
+// job. Every step commits per chunk together with its reader position, so a failed run relaunched
+// with the same parameters continues after the last committed chunk:
+//   stageFeed          copies the feed file into employee_feed
+//   checkFeed          refuses feeds that would terminate too many employees (a truncated file)
+//   applyFeed          inserts new employees and updates changed ones, partitioned by feed id range
+//   terminateMissing   terminates active employees absent from the feed, partitioned by employee id range
+//   clearFeed          drops the staged rows
+@Configuration
+@EnableConfigurationProperties(ReconcileProperties.class)
+public class EmployeeReconcileConfig {
+    static final String JOB_NAME = "employeeReconcileJob";
+
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final String INSERT_FEED = "insert into employee_feed"
+            + " (job_instance_id, tenant_id, email, first_name, last_name) values (?, ?, ?, ?, ?)";
+    private static final String FEED_BOUNDS = "select min(id), max(id) from employee_feed where job_instance_id = ?";
+    private static final String COUNT_FEED = "select count(*) from employee_feed where job_instance_id = ?";
+    // one row per email, the first the feed lists, next to the newest employee row with that email
+    private static final String SELECT_FEED_CHANGES = "select f.id, f.email, f.first_name, f.last_name,"
+            + " e.id as employee_id, e.first_name as current_first_name, e.last_Name as current_last_name,"
+            + " e.status, e.version"
+            + " from employee_feed f left join employees e on e.id ="
+            + " (select max(x.id) from employees x where x.tenant_id = f.tenant_id and x.email = f.email)"
+            + " where f.job_instance_id = ? and f.id between ? and ?"
+            + " and not exists (select 1 from employee_feed d"
+            + " where d.job_instance_id = f.job_instance_id and d.email = f.email and d.id < f.id)"
+            + " order by f.id";
+    private static final String ACTIVE_BOUNDS = "select min(id), max(id) from employees"
+            + " where tenant_id = ? and status = 'ACTIVE'";
+    private static final String COUNT_ACTIVE = "select count(*) from employees"
+            + " where tenant_id = ? and status = 'ACTIVE'";
+    private static final String NOT_IN_FEED = "not exists (select 1 from employee_feed f"
+            + " where f.job_instance_id = :jobInstanceId and f.email = e.email)";
+    private static final String COUNT_MISSING = "select count(*) from employees e"
+            + " where e.tenant_id = :tenant and e.status = 'ACTIVE' and " + NOT_IN_FEED;
+    // also drops what earlier runs of the tenant left behind when they failed and were never restarted
+    private static final String DELETE_FEED = "delete from employee_feed where tenant_id = ? and job_instance_id <= ?";
+
+    private final ReconcileProperties properties;
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public EmployeeReconcileConfig(ReconcileProperties properties, JobRepository jobRepository,
+                                   PlatformTransactionManager transactionManager, DataSource dataSource,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public EmployeeReconciler employeeReconciler(JobLauncher jobLauncher, Job employeeReconcileJob) {
+        return new EmployeeReconciler(jobLauncher, employeeReconcileJob, properties, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public Job employeeReconcileJob(Step stageFeedStep, Step checkFeedStep, Step applyFeedStep,
+                                    Step terminateMissingStep, Step clearFeedStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(stageFeedStep)
+                .next(checkFeedStep)
+                .next(applyFeedStep)
+                .next(terminateMissingStep)
+                .next(clearFeedStep)
+                .build();
+    }
+
+    @Bean
+    public Step stageFeedStep(FlatFileItemReader<FeedRecord> feedReader, JdbcBatchItemWriter<FeedRecord> feedWriter) {
+        return new StepBuilder("stageFeed", jobRepository)
+                .<FeedRecord, FeedRecord>chunk(properties.getChunkSize(), transactionManager)
+                .reader(feedReader)
+                .processor(validFeedRecords())
+                .writer(feedWriter)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<FeedRecord> feedReader(@Value("#{jobParameters['feed']}") String feed) {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setStrict(false);
+        return new FlatFileItemReaderBuilder<FeedRecord>()
+                .name("feedReader")
+                .resource(new FileSystemResource(feed))
+                .linesToSkip(1)
+                // quoted fields may span lines
+                .recordSeparatorPolicy(new DefaultRecordSeparatorPolicy())
+                // columns are matched by their header name, ignoring case and separators
+                .skippedLinesCallback(header -> tokenizer.setNames(Arrays.stream(
+                        new DelimitedLineTokenizer().tokenize(header).getValues())
+                        .map(name -> name.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT))
+                        .toArray(String[]::new)))
+                .lineTokenizer(tokenizer)
+                .fieldSetMapper(fields -> new FeedRecord(fields.readString("email"),
+                        fields.readString("firstname"), fields.readString("lastname")))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public JdbcBatchItemWriter<FeedRecord> feedWriter(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId,
+            @Value("#{jobParameters['tenant']}") String tenantId) {
+        return new JdbcBatchItemWriterBuilder<FeedRecord>()
+                .dataSource(dataSource)
+                .sql(INSERT_FEED)
+                .itemPreparedStatementSetter((record, statement) -> {
+                    statement.setLong(1, jobInstanceId);
+                    statement.setString(2, tenantId);
+                    statement.setString(3, record.email());
+                    statement.setString(4, record.firstName());
+                    statement.setString(5, record.lastName());
+                })
+                .build();
+    }
+
+    @Bean
+    public Step checkFeedStep() {
+        return new StepBuilder("checkFeed", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    long jobInstanceId = contribution.getStepExecution().getJobExecution().getJobId();
+                    String tenantId = contribution.getStepExecution().getJobParameters().getString("tenant");
+                    long feedRows = jdbcTemplate.queryForObject(COUNT_FEED, Long.class, jobInstanceId);
+                    long active = jdbcTemplate.queryForObject(COUNT_ACTIVE, Long.class, tenantId);
+                    long missing = new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject(COUNT_MISSING,
+                            Map.of("tenant", tenantId, "jobInstanceId", jobInstanceId), Long.class);
+                    if ((feedRows == 0 && active > 0) || missing > active * properties.getMaxTerminatedFraction()) {
+                        throw new IllegalStateException("Feed has " + feedRows + " rows and would terminate "
+                                + missing + " of " + active + " active employees, refusing to apply it");
+                    }
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step applyFeedStep(IdRangePartitioner applyFeedPartitioner, Step applyFeedWorkerStep) {
+        return new StepBuilder("applyFeed", jobRepository)
+                .partitioner("applyFeedWorker", applyFeedPartitioner)
+                .step(applyFeedWorkerStep)
+                .gridSize(properties.getPartitions())
+                .taskExecutor(partitionExecutor("employee-reconcile-apply-"))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public IdRangePartitioner applyFeedPartitioner(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId) {
+        return new IdRangePartitioner(jdbcTemplate, FEED_BOUNDS, jobInstanceId);
+    }
+
+    @Bean
+    public Step applyFeedWorkerStep(JdbcCursorItemReader<FeedChange> feedChangeReader,
+                                    EmployeeRepository employeeRepository, EmailBloomFilter emailFilter,
+                                    EmployeeStatsCounters statsCounters, EmployeeCache employeeCache) {
+        return new StepBuilder("applyFeedWorker", jobRepository)
+                .<FeedChange, FeedChange>chunk(properties.getChunkSize(), transactionManager)
+                .reader(feedChangeReader)
+                .processor(changedRows())
+                .writer(new FeedChangeWriter(employeeRepository, jdbcTemplate, emailFilter, statsCounters,
+                        employeeCache, meterRegistry))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<FeedChange> feedChangeReader(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        return new JdbcCursorItemReaderBuilder<FeedChange>()
+                .name("feedChangeReader")
+                .dataSource(dataSource)
+                .sql(SELECT_FEED_CHANGES)
+                .queryArguments(jobInstanceId, minId, maxId)
+                .fetchSize(properties.getChunkSize())
+                .rowMapper((resultSet, rowNum) -> new FeedChange(resultSet.getLong("id"),
+                        resultSet.getString("email"), resultSet.getString("first_name"),
+                        resultSet.getString("last_name"), resultSet.getObject("employee_id", Long.class),
+                        resultSet.getString("current_first_name"), resultSet.getString("current_last_name"),
+                        resultSet.getString("status"), resultSet.getObject("version", Long.class)))
+                .build();
+    }
+
+    @Bean
+    public Step terminateMissingStep(IdRangePartitioner terminateMissingPartitioner,
+                                     Step terminateMissingWorkerStep) {
+        return new StepBuilder("terminateMissing", jobRepository)
+                .partitioner("terminateMissingWorker", terminateMissingPartitioner)
+                .step(terminateMissingWorkerStep)
+                .gridSize(properties.getPartitions())
+                .taskExecutor(partitionExecutor("employee-reconcile-terminate-"))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public IdRangePartitioner terminateMissingPartitioner(@Value("#{jobParameters['tenant']}") String tenantId) {
+        return new IdRangePartitioner(jdbcTemplate, ACTIVE_BOUNDS, tenantId);
+    }
+
+    @Bean
+    public Step terminateMissingWorkerStep(JdbcPagingItemReader<TerminateMissingWriter.ActiveEmployee> missingReader,
+                                           EmployeeStatsCounters statsCounters, EmployeeCache employeeCache) {
+        return new StepBuilder("terminateMissingWorker", jobRepository)
+                .<TerminateMissingWriter.ActiveEmployee, TerminateMissingWriter.ActiveEmployee>chunk(
+                        properties.getChunkSize(), transactionManager)
+                .reader(missingReader)
+                .writer(new TerminateMissingWriter(jdbcTemplate, statsCounters, employeeCache, meterRegistry,
+                        Clock.systemUTC()))
+                .build();
+    }
+
+    // keyset paging on id: rows terminated by earlier chunks drop out of the result without
+    // shifting the pages that follow, unlike offset paging
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<TerminateMissingWriter.ActiveEmployee> missingReader(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId,
+            @Value("#{jobParameters['tenant']}") String tenantId,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        return new JdbcPagingItemReaderBuilder<TerminateMissingWriter.ActiveEmployee>()
+                .name("missingReader")
+                .dataSource(dataSource)
+                .selectClause("select e.id, e.email, e.version")
+                .fromClause("from employees e")
+                .whereClause("e.tenant_id = :tenant and e.status = 'ACTIVE' and e.id between :minId and :maxId and "
+                        + NOT_IN_FEED)
+                .parameterValues(Map.of("tenant", tenantId, "minId", minId, "maxId", maxId,
+                        "jobInstanceId", jobInstanceId))
+                .sortKeys(Map.of("id", Order.ASCENDING))
+                .pageSize(properties.getChunkSize())
+                .rowMapper((resultSet, rowNum) -> new TerminateMissingWriter.ActiveEmployee(resultSet.getLong("id"),
+                        resultSet.getString("email"), resultSet.getLong("version")))
+                .build();
+    }
+
+    @Bean
+    public Step clearFeedStep() {
+        return new StepBuilder("clearFeed", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    long jobInstanceId = contribution.getStepExecution().getJobExecution().getJobId();
+                    String tenantId = contribution.getStepExecution().getJobParameters().getString("tenant");
+                    jdbcTemplate.update(DELETE_FEED, tenantId, jobInstanceId);
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+    }
+
+    private ItemProcessor<FeedRecord, FeedRecord> validFeedRecords() {
+        return record -> {
+            if (isBlankOrTooLong(record.email()) || isBlankOrTooLong(record.firstName())
+                    || isBlankOrTooLong(record.lastName())) {
+                meterRegistry.counter("employee.reconcile.rows", "outcome", "invalid").increment();
+                return null;
+            }
+            return record;
+        };
+    }
+
+    private ItemProcessor<FeedChange, FeedChange> changedRows() {
+        return change -> {
+            if (change.isUnchanged()) {
+                meterRegistry.counter("employee.reconcile.rows", "outcome", "unchanged").increment();
+                return null;
+            }
+            return change;
+        };
+    }
+
+    private static boolean isBlankOrTooLong(String value) {
+        return value == null || value.isBlank() || value.length() > MAX_FIELD_LENGTH;
+    }
+
+    // workers run on their own threads, which inherit the tenant so the routing DataSource sends
+    // both the data and the job repository updates to the tenant's shard
+    private static SimpleAsyncTaskExecutor partitionExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setTaskDecorator(task -> {
+            String tenantId = TenantContext.getTenantId();
+            return () -> TenantContext.runAs(tenantId, task);
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,70 @@
+package net.javaguides.springboot.reconcile;
+
+import net.javaguides.springboot.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+
+// Launches the reconcile job for a tenant's feed. One job instance per feed and day: launching the
+// same feed again on the day of a failed run restarts that run after its last committed chunk,
+// a completed one is not repeated.
+public class EmployeeReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeReconciler.class);
+
+    private final JobLauncher jobLauncher;
+    private final Job job;
+    private final ReconcileProperties properties;
+    private final Clock clock;
+
+    public EmployeeReconciler(JobLauncher jobLauncher, Job job, ReconcileProperties properties, Clock clock) {
+        this.jobLauncher = jobLauncher;
+        this.job = job;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${reconcile.cron:-}")
+    public void reconcileNightly() {
+        if (properties.getFeed() == null) {
+            logger.warn("reconcile.feed is not set, skipping the employee reconcile");
+            return;
+        }
+        try {
+            reconcile(properties.getTenant(), properties.getFeed(), LocalDate.now(clock));
+        } catch (JobExecutionException e) {
+            logger.warn("Employee reconcile not started: {}", e.getMessage());
+        }
+    }
+
+    public JobExecution reconcile(String tenantId, Path feed, LocalDate runDate) throws JobExecutionException {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString("tenant", tenantId)
+                .addString("feed", feed.toAbsolutePath().toString())
+                .addString("runDate", runDate.toString())
+                .toJobParameters();
+        TenantContext.setTenantId(tenantId);
+        try {
+            JobExecution execution = jobLauncher.run(job, parameters);
+            for (StepExecution step : execution.getStepExecutions()) {
+                logger.info("Employee reconcile {} for tenant {}: {} read, {} written, {} filtered, {} commits",
+                        step.getStepName(), tenantId, step.getReadCount(), step.getWriteCount(),
+                        step.getFilterCount(), step.getCommitCount());
+            }
+            logger.info("Employee reconcile for tenant {} finished with {}", tenantId, execution.getStatus());
+            return execution;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package net.javaguides.springboot.reconcile;
+
+// A staged feed row next to the employee it matches by email; employeeId is null when there is none.
+public record FeedChange(long feedId, String email, String firstName, String lastName,
+                         Long employeeId, String currentFirstName, String currentLastName,
+                         String currentStatus, Long version) {
+
+    public boolean isNew() {
+        return employeeId == null;
+    }
+
+    public boolean isReactivation() {
+        return employeeId != null && !"ACTIVE".equals(currentStatus);
+    }
+
+    public boolean isUnchanged() {
+        return employeeId != null && !isReactivation()
+                && firstName.equals(currentFirstName) && lastName.equals(currentLastName);
+    }
+}
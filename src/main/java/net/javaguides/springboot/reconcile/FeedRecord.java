@@ -0,0 +1,5 @@
+package net.javaguides.springboot.reconcile;
+
+// One line of the HR feed.
+public record FeedRecord(String email, String firstName, String lastName) {
+}
@@ -0,0 +1,49 @@
+package net.javaguides.springboot.reconcile;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Splits [min(id), max(id)] of the rows selected by minMaxQuery into gridSize contiguous ranges,
+// handed to the workers as minId/maxId. Ranges are fixed in the execution context, so a restart
+// reruns exactly the partitions that did not finish.
+public class IdRangePartitioner implements Partitioner {
+    private final JdbcTemplate jdbcTemplate;
+    private final String minMaxQuery;
+    private final Object[] args;
+
+    public IdRangePartitioner(JdbcTemplate jdbcTemplate, String minMaxQuery, Object... args) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minMaxQuery = minMaxQuery;
+        this.args = args;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        long[] bounds = jdbcTemplate.queryForObject(minMaxQuery,
+                (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}, args);
+        long min = bounds[0];
+        long max = bounds[1];
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (max < min || max == 0) {
+            partitions.put("partition0", range(1, 0));
+            return partitions;
+        }
+        long size = Math.max(1, (max - min + gridSize) / gridSize);
+        int index = 0;
+        for (long start = min; start <= max; start += size) {
+            partitions.put("partition" + index++, range(start, Math.min(max, start + size - 1)));
+        }
+        return partitions;
+    }
+
+    private static ExecutionContext range(long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong("minId", minId);
+        context.putLong("maxId", maxId);
+        return context;
+    }
+}
@@ -0,0 +1,25 @@
+package net.javaguides.springboot.reconcile;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties("reconcile")
+public class ReconcileProperties {
+    // when the nightly run starts; "-" turns the schedule off
+    private String cron = "-";
+    // the HR feed, a CSV with email, firstName and lastName columns in any order
+    private Path feed;
+    // the tenant the feed belongs to
+    private String tenant = "default";
+    // rows read, compared and written per transaction; also the restart granularity
+    private int chunkSize = 1_000;
+    // id ranges applied concurrently by the partitioned steps
+    private int partitions = Runtime.getRuntime().availableProcessors();
+    // a feed that would terminate more than this share of the active employees fails the run
+    private double maxTerminatedFraction = 0.2;
+}
@@ -0,0 +1,72 @@
+package net.javaguides.springboot.reconcile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.cache.EmployeeCache;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+// Terminates active employees the feed no longer lists, the same soft delete as DELETE
+// /api/employees/{id}; ArchiveMover moves them out later.
+public class TerminateMissingWriter implements ItemWriter<TerminateMissingWriter.ActiveEmployee> {
+    private static final String TERMINATE_EMPLOYEE = "update employees"
+            + " set status = 'TERMINATED', terminated_at = ?, version = version + 1"
+            + " where id = ? and version = ? and status = 'ACTIVE'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeStatsCounters statsCounters;
+    private final EmployeeCache employeeCache;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public TerminateMissingWriter(JdbcTemplate jdbcTemplate, EmployeeStatsCounters statsCounters,
+                                  EmployeeCache employeeCache, MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statsCounters = statsCounters;
+        this.employeeCache = employeeCache;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @Override
+    public void write(Chunk<? extends ActiveEmployee> chunk) {
+        List<? extends ActiveEmployee> employees = chunk.getItems();
+        Timestamp now = Timestamp.from(clock.instant());
+        int[][] counts = jdbcTemplate.batchUpdate(TERMINATE_EMPLOYEE, employees, employees.size(),
+                (statement, employee) -> {
+                    statement.setTimestamp(1, now);
+                    statement.setLong(2, employee.id());
+                    statement.setLong(3, employee.version());
+                });
+        List<ActiveEmployee> terminated = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            if (counts.length == 0 || counts[0][i] != 0) {
+                terminated.add(employees.get(i));
+            }
+        }
+        int conflicts = employees.size() - terminated.size();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (ActiveEmployee employee : terminated) {
+                    employeeCache.evict(employee.id());
+                    employeeCache.evictEmail(employee.email());
+                    statsCounters.onDeleted(employee.email());
+                }
+                meterRegistry.counter("employee.reconcile.rows", "outcome", "terminated").increment(terminated.size());
+                meterRegistry.counter("employee.reconcile.rows", "outcome", "conflict").increment(conflicts);
+            }
+        });
+    }
+
+    public record ActiveEmployee(long id, String email, long version) {
+    }
+}
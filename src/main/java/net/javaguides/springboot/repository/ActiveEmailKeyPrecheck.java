@@ -0,0 +1,59 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.Employee;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// V9 adds the unique (tenant_id, active_email) key, which cannot be created while two active employees
+// of a tenant share an email. Instead of failing on the index with a bare duplicate-key error, the
+// migration stops with the offending emails; terminate (or re-email) all but one of each and rerun it.
+@Component
+public class ActiveEmailKeyPrecheck implements Callback {
+    static final MigrationVersion ACTIVE_EMAIL_KEY_VERSION = MigrationVersion.fromVersion("9");
+    private static final int MAX_REPORTED = 20;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE && context.getMigrationInfo() != null
+                && ACTIVE_EMAIL_KEY_VERSION.equals(context.getMigrationInfo().getVersion());
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("select tenant_id, email, count(*) from employees "
+                     + "where status = 'ACTIVE' group by tenant_id, email having count(*) > 1")) {
+            while (resultSet.next() && duplicates.size() < MAX_REPORTED) {
+                duplicates.add(resultSet.getString(1) + "/" + resultSet.getString(2) + " x" + resultSet.getLong(3));
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Could not check for duplicate active emails before " + Employee.ACTIVE_EMAIL_KEY, e);
+        }
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("Cannot add " + Employee.ACTIVE_EMAIL_KEY + ": active employees share an email "
+                    + "(tenant/email x count, first " + MAX_REPORTED + "): " + duplicates
+                    + "; terminate all but one of each and migrate again");
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "activeEmailKeyPrecheck";
+    }
+}
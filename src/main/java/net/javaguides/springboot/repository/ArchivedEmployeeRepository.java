@@ -0,0 +1,14 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.ArchivedEmployee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+
+public interface ArchivedEmployeeRepository extends Repository<ArchivedEmployee, Long> {
+    Slice<ArchivedEmployee> findByEmail(String email, Pageable pageable);
+
+    Slice<ArchivedEmployee> findByLastNameStartingWith(String lastName, Pageable pageable);
+
+    Slice<ArchivedEmployee> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.EmployeeImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmployeeImportJobRepository extends JpaRepository<EmployeeImportJob, Long> {
+}
@@ -0,0 +1,236 @@
+package net.javaguides.springboot.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.Employee_;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// A parsed GET /api/employees?filter=...&sort=...&limit=...&cursor=... request.
+//
+// filter: field:op:value terms, all of which must match
+//   lastName:prefix|eq, email:domain|eq, id:gt|gte|lt|lte|eq
+// sort:   comma separated fields, '-' prefix for descending; id is appended as the tie-breaker
+//
+// Pages are keyset pages: the cursor carries the sort values of the last row returned and the next
+// page continues strictly after it, so the database never skips over OFFSET rows and each page reads
+// at most limit + 1 rows in index order. Only fields with a (tenant_id, field) index are sortable, and
+// combinations no index can serve are rejected: email:domain needs a lastName or email:eq filter next to
+// it, and with filters present the leading sort key must be id or a filtered field.
+public final class EmployeeQuery {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    static final Map<String, SingularAttribute<Employee, ? extends Comparable<?>>> SORTABLE_FIELDS = new LinkedHashMap<>();
+    private static final char CURSOR_SEPARATOR = '\u001f';
+
+    static {
+        SORTABLE_FIELDS.put("id", Employee_.id);
+        SORTABLE_FIELDS.put("lastName", Employee_.lastName);
+        SORTABLE_FIELDS.put("email", Employee_.email);
+    }
+
+    private final List<Specification<Employee>> filters;
+    private final List<Sort.Order> orders;
+    private final int limit;
+    private final List<Object> after;
+
+    private EmployeeQuery(List<Specification<Employee>> filters, List<Sort.Order> orders, int limit, List<Object> after) {
+        this.filters = filters;
+        this.orders = orders;
+        this.limit = limit;
+        this.after = after;
+    }
+
+    // throws IllegalArgumentException describing the first thing wrong with the request
+    public static EmployeeQuery parse(List<String> filter, String sort, Integer limit, String cursor) {
+        List<Specification<Employee>> filters = new ArrayList<>();
+        Set<String> indexedFields = new HashSet<>();
+        boolean domainFilter = false;
+        if (filter != null) {
+            for (String term : filter) {
+                if (!term.isBlank()) {
+                    filters.add(parseFilter(term.trim()));
+                    String[] parts = term.trim().split(":", 3);
+                    if (parts[0].equals("email") && parts[1].equals("domain")) {
+                        domainFilter = true;
+                    } else {
+                        indexedFields.add(parts[0]);
+                    }
+                }
+            }
+        }
+        // the domain match is a leading-wildcard LIKE; alone it would scan the tenant until a page fills
+        if (domainFilter && !indexedFields.contains("lastName") && !indexedFields.contains("email")) {
+            throw new IllegalArgumentException("email:domain needs a lastName or email:eq filter next to it");
+        }
+        List<Sort.Order> orders = parseSort(sort);
+        // ordering by another field's index would walk it and test every row against the filters
+        String leadingSort = orders.get(0).getProperty();
+        if (!filters.isEmpty() && !leadingSort.equals("id") && !indexedFields.contains(leadingSort)) {
+            throw new IllegalArgumentException("cannot sort by '" + leadingSort + "' without filtering on it");
+        }
+        int pageLimit = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageLimit < 1 || pageLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<Object> after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, orders);
+        return new EmployeeQuery(filters, orders, pageLimit, after);
+    }
+
+    public Specification<Employee> toSpecification() {
+        Specification<Employee> specification = Specification.allOf(filters);
+        return after == null ? specification : specification.and(this::afterCursor);
+    }
+
+    public Sort getSort() {
+        return Sort.by(orders);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String cursorAfter(Employee last) {
+        StringBuilder cursor = new StringBuilder();
+        for (Sort.Order order : orders) {
+            if (cursor.length() > 0) {
+                cursor.append(CURSOR_SEPARATOR);
+            }
+            cursor.append(switch (order.getProperty()) {
+                case "id" -> Long.toString(last.getId());
+                case "lastName" -> last.getLastName();
+                default -> last.getEmail();
+            });
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // (k1 > v1) or (k1 = v1 and k2 > v2) or ..., with < for descending keys
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate afterCursor(Root<Employee> root, CriteriaQuery<?> query,
+                                  CriteriaBuilder builder) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            Expression<Comparable> path = (Expression<Comparable>) (Expression<?>) root.get(SORTABLE_FIELDS.get(order.getProperty()));
+            Comparable value = (Comparable) after.get(i);
+            List<Predicate> alternative = new ArrayList<>(equalSoFar);
+            alternative.add(order.isAscending() ? builder.greaterThan(path, value) : builder.lessThan(path, value));
+            alternatives.add(builder.and(alternative.toArray(Predicate[]::new)));
+            equalSoFar.add(builder.equal(path, value));
+        }
+        return builder.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static Specification<Employee> parseFilter(String term) {
+        String[] parts = term.split(":", 3);
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("filter '" + term + "' is not field:op:value");
+        }
+        String field = parts[0];
+        String op = parts[1];
+        String value = parts[2];
+        switch (field) {
+            case "lastName":
+                if (op.equals("prefix")) {
+                    return EmployeeSpecifications.lastNameStartsWith(value);
+                }
+                if (op.equals("eq")) {
+                    return EmployeeSpecifications.lastNameIs(value);
+                }
+                break;
+            case "email":
+                if (op.equals("domain")) {
+                    return EmployeeSpecifications.emailInDomain(value);
+                }
+                if (op.equals("eq")) {
+                    return EmployeeSpecifications.emailIs(value);
+                }
+                break;
+            case "id":
+                long id = parseId(value);
+                switch (op) {
+                    case "gt": return EmployeeSpecifications.idGreaterThan(id);
+                    case "gte": return EmployeeSpecifications.idAtLeast(id);
+                    case "lt": return EmployeeSpecifications.idLessThan(id);
+                    case "lte": return EmployeeSpecifications.idAtMost(id);
+                    case "eq": return EmployeeSpecifications.idIs(id);
+                    default: break;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("cannot filter on '" + field + "'");
+        }
+        throw new IllegalArgumentException("unsupported operator '" + op + "' for " + field);
+    }
+
+    private static List<Sort.Order> parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        if (sort != null) {
+            for (String term : sort.split(",")) {
+                String field = term.trim();
+                if (field.isEmpty()) {
+                    continue;
+                }
+                boolean descending = field.startsWith("-");
+                String property = descending ? field.substring(1) : field;
+                if (!SORTABLE_FIELDS.containsKey(property)) {
+                    throw new IllegalArgumentException("cannot sort by '" + property + "', sortable fields are "
+                            + SORTABLE_FIELDS.keySet());
+                }
+                if (orders.stream().anyMatch(order -> order.getProperty().equals(property))) {
+                    throw new IllegalArgumentException("'" + property + "' appears twice in sort");
+                }
+                orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+                hasId |= property.equals("id");
+            }
+        }
+        // id makes the order total, which keyset paging relies on
+        if (!hasId) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        return orders;
+    }
+
+    private static List<Object> decodeCursor(String cursor, List<Sort.Order> orders) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        String[] values = decoded.split(String.valueOf(CURSOR_SEPARATOR), -1);
+        if (values.length != orders.size()) {
+            throw new IllegalArgumentException("cursor does not match the sort");
+        }
+        List<Object> after = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            after.add(orders.get(i).getProperty().equals("id") ? parseId(values[i]) : values[i]);
+        }
+        return after;
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + value + "' is not an id");
+        }
+    }
+}
@@ -2,12 +2,17 @@ package net.javaguides.springboot.repository;
 
 import net.javaguides.springboot.model.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeRepositoryCustom {
     Optional<Employee> findByEmail(String email);
     //define custom query using JPQL with index params
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
@@ -17,9 +22,27 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
     Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
-    @Query(value="select * from employees e where e.first_name = ?1 and e.last_name = ?2",nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    // native queries bypass @TenantId and @Where, so the tenant and the active status are spelled out
+    @Query(value="select * from employees e where e.tenant_id = ?1 and e.status = 'ACTIVE' and e.first_name = ?2 and e.last_name = ?3",nativeQuery = true)
+    Employee findByNativeSQL(String tenantId, String firstName, String lastName);
 
-    @Query(value="select * from employees e where e.first_name = :firstName and e.last_name = :lastName",nativeQuery = true)
-    Employee findByNativeSQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @Query(value="select * from employees e where e.tenant_id = :tenantId and e.status = 'ACTIVE' and e.first_name = :firstName and e.last_name = :lastName",nativeQuery = true)
+    Employee findByNativeSQLNamedParams(@Param("tenantId") String tenantId, @Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    @Query("select e.email from Employee e where e.id = :id")
+    Optional<String> findEmailById(@Param("id") long id);
+
+    // one statement instead of find-then-save; the tenant is explicit because native queries bypass @TenantId
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = EmployeeRepositoryCustom.UPSERT_BY_EMAIL, nativeQuery = true)
+    int upsertByEmail(@Param("tenantId") String tenantId, @Param("firstName") String firstName,
+                      @Param("lastName") String lastName, @Param("email") String email);
+
+    // soft delete: the row leaves the active set now and is moved to the archive by ArchiveMover;
+    // the tenant is explicit because @TenantId does not scope bulk updates
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Employee e set e.status = net.javaguides.springboot.model.EmployeeStatus.TERMINATED, e.terminatedAt = :terminatedAt, e.version = e.version + 1 where e.id = :id and e.tenantId = :tenantId")
+    int terminateById(@Param("tenantId") String tenantId, @Param("id") long id, @Param("terminatedAt") Instant terminatedAt);
 }
@@ -0,0 +1,42 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.Employee;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Sparse fieldsets: selects only the requested Employee attributes, so the database reads and
+// ships just those columns and the result serializes to just those JSON properties.
+public interface EmployeeRepositoryCustom {
+    // attributes clients may name in ?fields=; tenantId stays implicit
+    List<String> SELECTABLE_FIELDS = List.of("id", "firstName", "lastName", "email", "status", "terminatedAt", "version");
+    // insert, or update the active employee with that email (uk_employees_tenant_active_email); the
+    // update count is 1 for an insert and 2 for an update on MySQL and on H2 in MySQL mode
+    String UPSERT_BY_EMAIL = "insert into employees (first_name, last_Name, email, tenant_id, status, version)"
+            + " values (:firstName, :lastName, :email, :tenantId, 'ACTIVE', 0)"
+            + " on duplicate key update version = version + 1, first_name = values(first_name),"
+            + " last_Name = values(last_Name)";
+
+    List<Map<String, Object>> findAllFields(Collection<String> fields);
+
+    Optional<Map<String, Object>> findFieldsById(long id, Collection<String> fields);
+
+    // one keyset page; unlike JpaSpecificationExecutor.findAll(spec, pageable) it never runs a count query
+    List<Employee> findWindow(Specification<Employee> specification, Sort sort, int maxResults);
+
+    // JDBC batch insert of new active employees for the current tenant, bypassing the persistence
+    // context (IDENTITY ids keep Hibernate from batching); joins the caller's transaction
+    int insertAll(List<Employee> employees);
+
+    // JDBC batch of UPSERT_BY_EMAIL for the current tenant; Statement.SUCCESS_NO_INFO for rows of a
+    // batch the driver rewrote into one multi-row statement
+    int[] upsertAllByEmail(List<Employee> employees);
+
+    // which of the emails already belong to an active employee of the current tenant
+    Set<String> findExistingEmails(Collection<String> emails);
+}
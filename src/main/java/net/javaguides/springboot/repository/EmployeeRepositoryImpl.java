@@ -0,0 +1,175 @@
+package net.javaguides.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Transactional(readOnly = true)
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+    private static final String INSERT_EMPLOYEE = "insert into employees"
+            + " (first_name, last_name, email, tenant_id, status, version) values (?, ?, ?, ?, 'ACTIVE', 0)";
+    private static final String SELECT_EXISTING_EMAILS = "select email from employees"
+            + " where tenant_id = :tenantId and status = 'ACTIVE' and email in (:emails)";
+    private static final String SELECT_EXISTING_EMAIL = "select email from employees"
+            + " where tenant_id = ? and status = 'ACTIVE' and email = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private volatile Boolean h2;
+
+    public EmployeeRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Collection<String> fields) {
+        CriteriaQuery<Tuple> query = select(fields);
+        return entityManager.createQuery(query).getResultStream().map(EmployeeRepositoryImpl::toMap).toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(long id, Collection<String> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = select(fields);
+        @SuppressWarnings("unchecked")
+        Root<Employee> employee = (Root<Employee>) query.getRoots().iterator().next();
+        query.where(builder.equal(employee.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst().map(EmployeeRepositoryImpl::toMap);
+    }
+
+    @Override
+    public List<Employee> findWindow(Specification<Employee> specification, Sort sort, int maxResults) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = builder.createQuery(Employee.class);
+        Root<Employee> employee = query.from(Employee.class);
+        Predicate predicate = specification.toPredicate(employee, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, employee, builder));
+        return entityManager.createQuery(query).setMaxResults(maxResults).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int insertAll(List<Employee> employees) {
+        String tenantId = TenantContext.getTenantId();
+        List<Object[]> rows = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            rows.add(new Object[]{employee.getFirstName(), employee.getLastName(), employee.getEmail(), tenantId});
+        }
+        int[] inserted = jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_EMPLOYEE, rows);
+        return inserted.length;
+    }
+
+    @Override
+    @Transactional
+    public int[] upsertAllByEmail(List<Employee> employees) {
+        String tenantId = TenantContext.getTenantId();
+        MapSqlParameterSource[] rows = new MapSqlParameterSource[employees.size()];
+        for (int i = 0; i < rows.length; i++) {
+            Employee employee = employees.get(i);
+            rows[i] = new MapSqlParameterSource()
+                    .addValue("firstName", employee.getFirstName())
+                    .addValue("lastName", employee.getLastName())
+                    .addValue("email", employee.getEmail())
+                    .addValue("tenantId", tenantId);
+        }
+        // like @Modifying(flushAutomatically, clearAutomatically): no stale managed employees afterwards
+        entityManager.flush();
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_BY_EMAIL, rows);
+        entityManager.clear();
+        return counts;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        String tenantId = TenantContext.getTenantId();
+        if (isH2()) {
+            // H2 only turns IN into index lookups on the first index column, on (tenant_id, email)
+            // it scans the whole tenant; one reused point lookup per email stays on the index
+            return jdbcTemplate.getJdbcTemplate().execute(SELECT_EXISTING_EMAIL, (PreparedStatement statement) -> {
+                Set<String> existing = new HashSet<>();
+                statement.setString(1, tenantId);
+                for (String email : emails) {
+                    statement.setString(2, email);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (resultSet.next()) {
+                            existing.add(resultSet.getString(1));
+                        }
+                    }
+                }
+                return existing;
+            });
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("emails", emails);
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING_EMAILS, parameters, String.class));
+    }
+
+    private boolean isH2() {
+        Boolean h2 = this.h2;
+        if (h2 == null) {
+            h2 = jdbcTemplate.getJdbcTemplate().execute((Connection connection) ->
+                    connection.getMetaData().getDatabaseProductName().equals("H2"));
+            this.h2 = h2;
+        }
+        return h2;
+    }
+
+    // the @Where on Employee and the tenant restriction still apply to this query
+    private CriteriaQuery<Tuple> select(Collection<String> fields) {
+        for (String field : fields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown employee field: " + field);
+            }
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> employee.get(field).alias(field))
+                .toList();
+        return query.multiselect(selections);
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,56 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.Employee_;
+import org.springframework.data.jpa.domain.Specification;
+
+// Building blocks for GET /api/employees?filter=...; combined with and() by EmployeeQuery.
+public final class EmployeeSpecifications {
+    private static final char ESCAPE = '\\';
+
+    private EmployeeSpecifications() {
+    }
+
+    // prefix LIKE, so the (tenant_id, last_Name) index still applies
+    public static Specification<Employee> lastNameStartsWith(String prefix) {
+        return (root, query, builder) -> builder.like(root.get(Employee_.lastName), escape(prefix) + "%", ESCAPE);
+    }
+
+    public static Specification<Employee> lastNameIs(String lastName) {
+        return (root, query, builder) -> builder.equal(root.get(Employee_.lastName), lastName);
+    }
+
+    public static Specification<Employee> emailIs(String email) {
+        return (root, query, builder) -> builder.equal(root.get(Employee_.email), email);
+    }
+
+    // suffix match, no index can serve it; the keyset limit is what keeps it bounded
+    public static Specification<Employee> emailInDomain(String domain) {
+        return (root, query, builder) -> builder.like(builder.lower(root.get(Employee_.email)),
+                "%@" + escape(domain.toLowerCase()), ESCAPE);
+    }
+
+    public static Specification<Employee> idGreaterThan(long id) {
+        return (root, query, builder) -> builder.greaterThan(root.get(Employee_.id), id);
+    }
+
+    public static Specification<Employee> idAtLeast(long id) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get(Employee_.id), id);
+    }
+
+    public static Specification<Employee> idLessThan(long id) {
+        return (root, query, builder) -> builder.lessThan(root.get(Employee_.id), id);
+    }
+
+    public static Specification<Employee> idAtMost(long id) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get(Employee_.id), id);
+    }
+
+    public static Specification<Employee> idIs(long id) {
+        return (root, query, builder) -> builder.equal(root.get(Employee_.id), id);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,9 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.model.ArchivedEmployee;
+
+import java.util.List;
+
+public interface EmployeeArchiveService {
+    List<ArchivedEmployee> searchArchive(String email, String lastNamePrefix, int page, int size);
+}
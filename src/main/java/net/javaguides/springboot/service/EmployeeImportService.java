@@ -0,0 +1,17 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.model.EmployeeImportJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface EmployeeImportService {
+    // stores the CSV and queues the import; progress is read back with getImport
+    EmployeeImportJob startImport(String fileName, InputStream content) throws IOException;
+    Optional<EmployeeImportJob> getImport(long id);
+    // continues a failed or interrupted import from its last checkpoint
+    Optional<EmployeeImportJob> resumeImport(long id);
+    Optional<Path> getErrorReport(long id);
+}
@@ -1,14 +1,39 @@
 package net.javaguides.springboot.service;
 
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeStats;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeQuery;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
+    // upper bound on ids per getEmployeesByIds call, enforced by every transport
+    int MAX_LOOKUP_IDS = 1000;
+
     Employee saveEmployee(Employee employee);
     List<Employee> getAllEmployees();
     Optional<Employee> getEmployeeById(long id);
+    // sparse fieldsets: only the named attributes are selected and returned
+    List<Map<String, Object>> getAllEmployees(Collection<String> fields);
+    Optional<Map<String, Object>> getEmployeeById(long id, Collection<String> fields);
+    // filtered, sorted keyset page; see EmployeeQuery
+    EmployeePage searchEmployees(EmployeeQuery query);
+    // cached employees are served from the cache, only the rest is queried
+    EmployeeLookup getEmployeesByIds(Collection<Long> ids);
     Employee updateEmployee(Employee updatedEmployee);
+    // re-reads and re-applies the changes when a concurrent update wins the optimistic lock
+    Optional<Employee> updateEmployee(long id, Consumer<Employee> changes);
+    // creates the employee or overwrites the names of the active one with that email, in one
+    // statement; true when it was created
+    boolean upsertByEmail(Employee employee);
+    void upsertByEmail(List<Employee> employees);
     void deleteEmployee(long id);
+    // served from in-memory counters, never scans the table
+    EmployeeStats getEmployeeStats();
 }
@@ -0,0 +1,32 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.model.ArchivedEmployee;
+import net.javaguides.springboot.repository.ArchivedEmployeeRepository;
+import net.javaguides.springboot.service.EmployeeArchiveService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class EmployeeArchiveServiceImpl implements EmployeeArchiveService {
+    private final ArchivedEmployeeRepository archivedEmployeeRepository;
+
+    public EmployeeArchiveServiceImpl(ArchivedEmployeeRepository archivedEmployeeRepository) {
+        this.archivedEmployeeRepository = archivedEmployeeRepository;
+    }
+
+    @Override
+    public List<ArchivedEmployee> searchArchive(String email, String lastNamePrefix, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        if (email != null) {
+            return archivedEmployeeRepository.findByEmail(email, pageable).getContent();
+        }
+        if (lastNamePrefix != null) {
+            return archivedEmployeeRepository.findByLastNameStartingWith(lastNamePrefix, pageable).getContent();
+        }
+        return archivedEmployeeRepository.findAllBy(pageable).getContent();
+    }
+}
@@ -0,0 +1,80 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.importer.EmployeeImporter;
+import net.javaguides.springboot.model.EmployeeImportJob;
+import net.javaguides.springboot.model.ImportStatus;
+import net.javaguides.springboot.repository.EmployeeImportJobRepository;
+import net.javaguides.springboot.service.EmployeeImportService;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+    private final EmployeeImportJobRepository jobRepository;
+    private final EmployeeImporter importer;
+
+    public EmployeeImportServiceImpl(EmployeeImportJobRepository jobRepository, EmployeeImporter importer) {
+        this.jobRepository = jobRepository;
+        this.importer = importer;
+    }
+
+    @Override
+    public EmployeeImportJob startImport(String fileName, InputStream content) throws IOException {
+        EmployeeImportJob job = jobRepository.save(EmployeeImportJob.builder()
+                .fileName(fileName == null || fileName.isBlank() ? "upload.csv" : fileName)
+                .status(ImportStatus.QUEUED)
+                .createdAt(Instant.now())
+                .build());
+        Path upload = importer.uploadOf(TenantContext.getTenantId(), job.getId());
+        try {
+            Files.createDirectories(upload.getParent());
+            Files.copy(content, upload, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            job.setStatus(ImportStatus.FAILED);
+            job.setFailureMessage("Could not store the upload: " + e.getMessage());
+            job.setFinishedAt(Instant.now());
+            jobRepository.save(job);
+            throw e;
+        }
+        importer.start(TenantContext.getTenantId(), job.getId());
+        return job;
+    }
+
+    @Override
+    public Optional<EmployeeImportJob> getImport(long id) {
+        return jobRepository.findById(id);
+    }
+
+    @Override
+    public Optional<EmployeeImportJob> resumeImport(long id) {
+        return jobRepository.findById(id).map(job -> {
+            if (job.getStatus() == ImportStatus.COMPLETED) {
+                throw new IllegalStateException("Import " + id + " is already completed");
+            }
+            if (importer.isRunning(TenantContext.getTenantId(), id)) {
+                throw new IllegalStateException("Import " + id + " is already running");
+            }
+            job.setStatus(ImportStatus.QUEUED);
+            EmployeeImportJob queued = jobRepository.save(job);
+            if (!importer.start(TenantContext.getTenantId(), id)) {
+                throw new IllegalStateException("Import " + id + " is already running");
+            }
+            return queued;
+        });
+    }
+
+    @Override
+    public Optional<Path> getErrorReport(long id) {
+        return jobRepository.findById(id)
+                .map(job -> importer.errorReportOf(TenantContext.getTenantId(), job.getId()))
+                .filter(Files::exists);
+    }
+}
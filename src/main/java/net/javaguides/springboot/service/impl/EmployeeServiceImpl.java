@@ -1,29 +1,79 @@
 package net.javaguides.springboot.service.impl;
 
+import io.micrometer.observation.annotation.Observed;
+import net.javaguides.springboot.cache.EmployeeCache;
+import net.javaguides.springboot.dedupe.EmailBloomFilter;
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeStats;
 import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.hotkeys.HotKeyTracker;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.profiling.EmployeeOperationEvent;
+import net.javaguides.springboot.repository.EmployeeQuery;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
+@Observed(name = "employee.service")
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
+    // keeps each IN (...) list well below driver and optimizer limits
+    static final int LOOKUP_CHUNK_SIZE = 500;
+    // retries for updateEmployee(id, changes); backoff doubles from the base with full jitter
+    static final int MAX_UPDATE_ATTEMPTS = 5;
+    static final long UPDATE_BACKOFF_BASE_MILLIS = 2;
+    static final long UPDATE_BACKOFF_MAX_MILLIS = 50;
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeStatsCounters statsCounters;
+    private final EmailBloomFilter emailFilter;
+    private final EmployeeCache employeeCache;
+    private final HotKeyTracker hotKeyTracker;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeStatsCounters statsCounters,
+                               EmailBloomFilter emailFilter, EmployeeCache employeeCache,
+                               HotKeyTracker hotKeyTracker) {
         this.employeeRepository = employeeRepository;
+        this.statsCounters = statsCounters;
+        this.emailFilter = emailFilter;
+        this.employeeCache = employeeCache;
+        this.hotKeyTracker = hotKeyTracker;
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exist with given email: "+employee.getEmail());
+        // most emails are new; the filter answers those without a query
+        if(!emailFilter.definitelyAbsent(employee.getEmail())){
+            Optional<Employee> savedEmployee = findByEmail(employee.getEmail());
+            if(savedEmployee.isPresent()){
+                throw new ResourceNotFoundException("Employee already exist with given email: "+employee.getEmail());
+            }
+            emailFilter.recordFalsePositive();
         }
-        return employeeRepository.save(employee);
+        // the filter only knows this node's writes; another replica may have just created the email
+        Employee createdEmployee = saveUniqueEmail(employee);
+        emailFilter.add(createdEmployee.getEmail());
+        statsCounters.onCreated(createdEmployee.getEmail());
+        return createdEmployee;
     }
 
     @Override
@@ -33,16 +83,188 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        hotKeyTracker.recordRead(id);
+        Optional<Employee> cachedEmployee = employeeCache.get(id);
+        EmployeeOperationEvent.recordCacheHit(cachedEmployee.isPresent());
+        if (cachedEmployee.isPresent()) {
+            return cachedEmployee;
+        }
+        Optional<Employee> employee = employeeRepository.findById(id);
+        employee.ifPresent(employeeCache::put);
+        return employee;
+    }
+
+    private Optional<Employee> findByEmail(String email) {
+        Optional<Employee> cachedEmployee = employeeCache.getByEmail(email);
+        EmployeeOperationEvent.recordCacheHit(cachedEmployee.isPresent());
+        if (cachedEmployee.isPresent()) {
+            return cachedEmployee;
+        }
+        Optional<Employee> employee = employeeRepository.findByEmail(email);
+        employee.ifPresent(employeeCache::put);
+        return employee;
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllEmployees(Collection<String> fields) {
+        return employeeRepository.findAllFields(fields);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getEmployeeById(long id, Collection<String> fields) {
+        return employeeRepository.findFieldsById(id, fields);
+    }
+
+    @Override
+    public EmployeePage searchEmployees(EmployeeQuery query) {
+        // one extra row tells whether there is a next page without a count query
+        List<Employee> employees = employeeRepository.findWindow(query.toSpecification(), query.getSort(), query.getLimit() + 1);
+        if (employees.size() <= query.getLimit()) {
+            return new EmployeePage(employees, null);
+        }
+        List<Employee> page = employees.subList(0, query.getLimit());
+        return new EmployeePage(new ArrayList<>(page), query.cursorAfter(page.get(page.size() - 1)));
+    }
+
+    @Override
+    public EmployeeLookup getEmployeesByIds(Collection<Long> ids) {
+        List<Long> requestedIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Employee> found = new HashMap<>();
+        List<Long> uncachedIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Optional<Employee> cachedEmployee = employeeCache.get(id);
+            if (cachedEmployee.isPresent()) {
+                found.put(id, cachedEmployee.get());
+            } else {
+                uncachedIds.add(id);
+            }
+        }
+        for (int from = 0; from < uncachedIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = uncachedIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, uncachedIds.size()));
+            for (Employee employee : employeeRepository.findAllById(chunk)) {
+                found.put(employee.getId(), employee);
+                employeeCache.put(employee);
+            }
+        }
+
+        List<Employee> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new EmployeeLookup(employees, missingIds);
     }
 
     @Override
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Optional<String> previousEmail = employeeRepository.findEmailById(updatedEmployee.getId());
+        Employee savedEmployee = saveUniqueEmail(updatedEmployee);
+        employeeCache.evict(savedEmployee.getId());
+        previousEmail.ifPresent(employeeCache::evictEmail);
+        emailFilter.add(savedEmployee.getEmail());
+        previousEmail.ifPresent(email -> statsCounters.onEmailChanged(email, savedEmployee.getEmail()));
+        return savedEmployee;
+    }
+
+    @Override
+    public Optional<Employee> updateEmployee(long id, Consumer<Employee> changes) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<Employee> savedEmployee = employeeRepository.findById(id);
+            if (savedEmployee.isEmpty()) {
+                return Optional.empty();
+            }
+            Employee employee = savedEmployee.get();
+            String previousEmail = employee.getEmail();
+            changes.accept(employee);
+            try {
+                Employee updatedEmployee = saveUniqueEmail(employee);
+                employeeCache.evict(id);
+                employeeCache.evictEmail(previousEmail);
+                emailFilter.add(updatedEmployee.getEmail());
+                statsCounters.onEmailChanged(previousEmail, updatedEmployee.getEmail());
+                return Optional.of(updatedEmployee);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private static void backOff(int attempt, ObjectOptimisticLockingFailureException cause) {
+        long ceiling = Math.min(UPDATE_BACKOFF_MAX_MILLIS, UPDATE_BACKOFF_BASE_MILLIS << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    @Override
+    public boolean upsertByEmail(Employee employee) {
+        int count = employeeRepository.upsertByEmail(TenantContext.getTenantId(), employee.getFirstName(),
+                employee.getLastName(), employee.getEmail());
+        employeeCache.evictEmail(employee.getEmail());
+        emailFilter.add(employee.getEmail());
+        if (count == 1) {
+            statsCounters.onCreated(employee.getEmail());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void upsertByEmail(List<Employee> employees) {
+        int[] counts = employeeRepository.upsertAllByEmail(employees);
+        for (int i = 0; i < counts.length; i++) {
+            String email = employees.get(i).getEmail();
+            employeeCache.evictEmail(email);
+            emailFilter.add(email);
+            // rewritten batches report no per-row counts; the stats reconcile catches those inserts
+            if (counts[i] == 1) {
+                statsCounters.onCreated(email);
+            }
+        }
     }
 
     @Override
     public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+        Optional<String> email = employeeRepository.findEmailById(id);
+        if (employeeRepository.terminateById(TenantContext.getTenantId(), id, Instant.now()) == 0) {
+            throw new EmptyResultDataAccessException("No active employee with id " + id, 1);
+        }
+        employeeCache.evict(id);
+        email.ifPresent(employeeCache::evictEmail);
+        email.ifPresent(statsCounters::onDeleted);
+    }
+
+    @Override
+    public EmployeeStats getEmployeeStats() {
+        return statsCounters.snapshot();
+    }
+
+    // the (tenant_id, active_email) key decides, whether the email is new or changed to a taken one
+    private Employee saveUniqueEmail(Employee employee) {
+        try {
+            return employeeRepository.save(employee);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateActiveEmail(e)) {
+                throw new ResourceNotFoundException("Employee already exist with given email: "+employee.getEmail(), e);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isDuplicateActiveEmail(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Employee.ACTIVE_EMAIL_KEY);
     }
 }
@@ -0,0 +1,111 @@
+package net.javaguides.springboot.sharding;
+
+import net.javaguides.springboot.tenant.TenantContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Routes each connection to the shard owning the current tenant. Shards are picked by rendezvous
+// hashing, so adding a shard only moves the tenants that now score highest on it (about 1/n of
+// them) instead of reshuffling everyone as hash-mod-n would.
+//
+// Nothing moves the rows of the tenants that do move, though. Pinned tenants (sharding.tenants.*) are
+// routed to their recorded shard regardless of the hash, and misplacedTenants() finds tenants whose
+// rows sit on a shard the routing no longer picks, so startup can refuse to serve them from the wrong one.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private final Map<String, DataSource> shards;
+    private final Map<String, String> pinnedTenants;
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards) {
+        this(shards, Map.of());
+    }
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, Map<String, String> pinnedTenants) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        pinnedTenants.forEach((tenant, shard) -> {
+            if (!shards.containsKey(shard)) {
+                throw new IllegalArgumentException("Tenant " + tenant + " is pinned to unknown shard " + shard);
+            }
+        });
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        this.pinnedTenants = Map.copyOf(pinnedTenants);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    public String shardFor(String tenantId) {
+        String pinned = pinnedTenants.get(tenantId);
+        if (pinned != null) {
+            return pinned;
+        }
+        String owner = null;
+        long bestScore = 0;
+        for (String shard : shards.keySet()) {
+            long score = score(tenantId, shard);
+            if (owner == null || Long.compareUnsigned(score, bestScore) > 0) {
+                owner = shard;
+                bestScore = score;
+            }
+        }
+        return owner;
+    }
+
+    // tenant -> the shard holding its rows, for every tenant with rows on a shard it is not routed to
+    public Map<String, String> misplacedTenants() {
+        Map<String, String> misplaced = new TreeMap<>();
+        shards.forEach((shard, dataSource) -> new JdbcTemplate(dataSource)
+                .queryForList("select distinct tenant_id from employees", String.class).stream()
+                .filter(tenant -> !shardFor(tenant).equals(shard))
+                .forEach(tenant -> misplaced.put(tenant, shard)));
+        return misplaced;
+    }
+
+    @Override
+    public void close() {
+        shards.values().forEach(shard -> {
+            if (shard instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shardFor(TenantContext.getTenantId());
+    }
+
+    // FNV-1a over "tenant/shard" followed by a murmur3 finalizer; stable across JVMs and restarts
+    static long score(String tenantId, String shard) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (tenantId + '/' + shard).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,65 @@
+package net.javaguides.springboot.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Replaces Boot's single DataSource with one Hikari pool per shard behind a ShardRoutingDataSource.
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty("sharding.enabled")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardingProperties properties, Environment environment,
+                                             MeterRegistry meterRegistry) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> {
+            HikariDataSource dataSource = new HikariDataSource();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + name);
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            // Boot's pool metrics only see DataSource beans, so each shard reports its own
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.put(name, dataSource);
+        });
+        return new ShardRoutingDataSource(shards, properties.getTenants());
+    }
+
+    // Boot migrates only the DataSource bean; apply the same Flyway configuration to every shard, then
+    // refuse to start while a tenant's rows sit on a shard it is no longer routed to: its employees
+    // would read as missing and new writes would fork across two shards
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardRoutingDataSource dataSource) {
+        return flyway -> {
+            dataSource.getShards().values().forEach(shard -> Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(shard)
+                    .load()
+                    .migrate());
+            Map<String, String> misplaced = dataSource.misplacedTenants();
+            if (!misplaced.isEmpty()) {
+                StringBuilder pins = new StringBuilder();
+                misplaced.forEach((tenant, shard) -> pins.append(System.lineSeparator())
+                        .append("  sharding.tenants.").append(tenant).append('=').append(shard));
+                throw new IllegalStateException("Tenants would be routed away from the shard holding their rows; "
+                        + "pin them until their rows are moved:" + pins);
+            }
+        };
+    }
+}
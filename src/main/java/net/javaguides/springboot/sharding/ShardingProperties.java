@@ -0,0 +1,27 @@
+package net.javaguides.springboot.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("sharding")
+public class ShardingProperties {
+    private boolean enabled;
+    // shard name -> connection settings; pool settings are shared from spring.datasource.hikari.*
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+    // tenant -> shard, routed there instead of by hash; keeps tenants in place while a new shard is added
+    private Map<String, String> tenants = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
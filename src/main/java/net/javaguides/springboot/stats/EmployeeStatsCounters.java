@@ -0,0 +1,139 @@
+package net.javaguides.springboot.stats;
+
+import net.javaguides.springboot.dto.EmployeeStats;
+import net.javaguides.springboot.sharding.ShardRoutingDataSource;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-tenant active employee counts, kept up to date by EmployeeServiceImpl on every create,
+// email change and delete so /api/employees/stats never touches the table. LongAdder stripes
+// the hot counters across cells instead of contending on one CAS. A scheduled GROUP BY
+// corrects any drift (rows written outside the service, archived or lost races).
+@Component
+public class EmployeeStatsCounters {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeStatsCounters.class);
+
+    private static final String COUNT_BY_TENANT_AND_DOMAIN = "select tenant_id,"
+            + " lower(substring(email, locate('@', email) + 1)) as domain, count(*) as employees"
+            + " from employees where status = 'ACTIVE' group by tenant_id, lower(substring(email, locate('@', email) + 1))";
+
+    private final DataSource dataSource;
+    private final ConcurrentMap<String, TenantCounters> tenants = new ConcurrentHashMap<>();
+    private volatile Instant reconciledAt;
+
+    public EmployeeStatsCounters(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void onCreated(String email) {
+        TenantCounters counters = current();
+        counters.total.increment();
+        counters.domain(domainOf(email)).increment();
+    }
+
+    public void onEmailChanged(String previousEmail, String email) {
+        String previousDomain = domainOf(previousEmail);
+        String domain = domainOf(email);
+        if (previousDomain.equals(domain)) {
+            return;
+        }
+        TenantCounters counters = current();
+        counters.domain(previousDomain).decrement();
+        counters.domain(domain).increment();
+    }
+
+    public void onDeleted(String email) {
+        TenantCounters counters = current();
+        counters.total.decrement();
+        counters.domain(domainOf(email)).decrement();
+    }
+
+    public EmployeeStats snapshot() {
+        TenantCounters counters = tenants.get(TenantContext.getTenantId());
+        if (counters == null) {
+            return new EmployeeStats(0, Map.of(), reconciledAt);
+        }
+        Map<String, Long> byDomain = new TreeMap<>();
+        counters.domains.forEach((domain, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                byDomain.put(domain, value);
+            }
+        });
+        return new EmployeeStats(counters.total.sum(), byDomain, reconciledAt);
+    }
+
+    // an initial run at startup seeds the counters, later runs correct drift. Each counter moves by the
+    // difference between the database and its value before the query, so increments made while the
+    // query runs are kept; a write that commits during the query can be counted twice until the next run.
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Map<LongAdder, Long> before = new IdentityHashMap<>();
+        tenants.values().forEach(counters -> {
+            before.put(counters.total, counters.total.sum());
+            counters.domains.values().forEach(count -> before.put(count, count.sum()));
+        });
+        List<DataSource> targets = dataSource instanceof ShardRoutingDataSource routing
+                ? List.copyOf(routing.getShards().values())
+                : List.of(dataSource);
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (DataSource target : targets) {
+            new JdbcTemplate(target).query(COUNT_BY_TENANT_AND_DOMAIN, row -> {
+                counts.computeIfAbsent(row.getString("tenant_id"), tenant -> new HashMap<>())
+                        .merge(row.getString("domain"), row.getLong("employees"), Long::sum);
+            });
+        }
+        tenants.keySet().forEach(tenant -> counts.putIfAbsent(tenant, Map.of()));
+        counts.forEach((tenant, byDomain) -> {
+            TenantCounters counters = tenants.computeIfAbsent(tenant, key -> new TenantCounters());
+            reset(counters.total, byDomain.values().stream().mapToLong(Long::longValue).sum(), before);
+            counters.domains.forEach((domain, count) -> {
+                if (!byDomain.containsKey(domain)) {
+                    reset(count, 0, before);
+                }
+            });
+            byDomain.forEach((domain, count) -> reset(counters.domain(domain), count, before));
+        });
+        reconciledAt = Instant.now();
+        logger.debug("Reconciled employee counters for {} tenants", counts.size());
+    }
+
+    private TenantCounters current() {
+        return tenants.computeIfAbsent(TenantContext.getTenantId(), tenant -> new TenantCounters());
+    }
+
+    // counters created after the snapshot started at zero
+    private static void reset(LongAdder adder, long value, Map<LongAdder, Long> before) {
+        adder.add(value - before.getOrDefault(adder, 0L));
+    }
+
+    static String domainOf(String email) {
+        int at = email == null ? -1 : email.indexOf('@');
+        return at < 0 ? "" : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static class TenantCounters {
+        final LongAdder total = new LongAdder();
+        final ConcurrentMap<String, LongAdder> domains = new ConcurrentHashMap<>();
+
+        LongAdder domain(String domain) {
+            return domains.computeIfAbsent(domain, key -> new LongAdder());
+        }
+    }
+}
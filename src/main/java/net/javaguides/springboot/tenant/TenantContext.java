@@ -0,0 +1,57 @@
+package net.javaguides.springboot.tenant;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// The tenant of the current request. Hibernate scopes every Employee query to it and the
+// sharded DataSource picks the tenant's shard from it; calls outside a request use DEFAULT_TENANT.
+public final class TenantContext {
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern VALID_TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = CURRENT_TENANT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    public static void setTenantId(String tenantId) {
+        if (!isValid(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenantId);
+        }
+        CURRENT_TENANT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT_TENANT.remove();
+    }
+
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && VALID_TENANT_ID.matcher(tenantId).matches();
+    }
+
+    public static void runAs(String tenantId, Runnable action) {
+        callAs(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(String tenantId, Supplier<T> action) {
+        String previous = CURRENT_TENANT.get();
+        setTenantId(tenantId);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT_TENANT.set(previous);
+            } else {
+                CURRENT_TENANT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.javaguides.springboot.tenant;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.stereotype.Component;
+
+// gRPC counterpart of TenantFilter. Listener callbacks can run on different executor threads,
+// so the tenant is bound around each callback rather than once per call.
+@Component
+public class TenantGrpcInterceptor implements ServerInterceptor {
+    static final Metadata.Key<String> TENANT_KEY = Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String tenantId = headers.get(TENANT_KEY);
+        if (tenantId == null) {
+            return next.startCall(call, headers);
+        }
+        if (!TenantContext.isValid(tenantId)) {
+            call.close(Status.INVALID_ARGUMENT.withDescription("Invalid x-tenant-id metadata"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        ServerCall.Listener<ReqT> listener = TenantContext.callAs(tenantId, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                TenantContext.runAs(tenantId, () -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                TenantContext.runAs(tenantId, () -> super.onHalfClose());
+            }
+
+            @Override
+            public void onCancel() {
+                TenantContext.runAs(tenantId, () -> super.onCancel());
+            }
+
+            @Override
+            public void onComplete() {
+                TenantContext.runAs(tenantId, () -> super.onComplete());
+            }
+
+            @Override
+            public void onReady() {
+                TenantContext.runAs(tenantId, () -> super.onReady());
+            }
+        };
+    }
+}
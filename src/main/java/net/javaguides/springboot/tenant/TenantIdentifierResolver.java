@@ -0,0 +1,17 @@
+package net.javaguides.springboot.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+// registered through hibernate.tenant_identifier_resolver so @DataJpaTest slices pick it up too
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.getTenantId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package net.javaguides.springboot.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Keeps exporting off the request path: finished spans go into a bounded queue and the scheduler
+// hands them to the exporter in batches. A full queue drops spans rather than blocking requests.
+public class BatchSpanProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(BatchSpanProcessor.class);
+
+    private final SpanExporter exporter;
+    private final BlockingQueue<FinishedSpan> queue;
+    private final Counter exported;
+    private final Counter dropped;
+
+    public BatchSpanProcessor(SpanExporter exporter, int queueCapacity, MeterRegistry meterRegistry) {
+        this.exporter = exporter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.exported = Counter.builder("tracing.spans").tag("outcome", "exported").register(meterRegistry);
+        this.dropped = Counter.builder("tracing.spans").tag("outcome", "dropped").register(meterRegistry);
+    }
+
+    public void onEnd(FinishedSpan span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tracing.export-interval:PT1S}")
+    public void flush() {
+        List<FinishedSpan> batch = new ArrayList<>();
+        while (queue.drainTo(batch, 512) > 0) {
+            try {
+                exporter.export(batch);
+                exported.increment(batch.size());
+            } catch (Exception e) {
+                dropped.increment(batch.size());
+                logger.warn("Could not export {} spans", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package net.javaguides.springboot.tracing;
+
+import java.util.Map;
+
+// kind follows OTLP: 1 internal, 2 server, 3 client
+public record FinishedSpan(String traceId, String spanId, String parentSpanId, String name, int kind,
+                           long startEpochNanos, long endEpochNanos, Map<String, String> attributes,
+                           String error) {
+}
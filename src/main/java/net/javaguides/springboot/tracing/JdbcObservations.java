@@ -0,0 +1,47 @@
+package net.javaguides.springboot.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.javaguides.springboot.jdbc.JdbcListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Connection;
+
+// Observes connection acquisition ("jdbc.connection") and every statement execution ("jdbc.query")
+// on the DataSource bean, as seen through JdbcListeners.
+public class JdbcObservations implements JdbcListener {
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+    private final int maxStatementLength;
+
+    public JdbcObservations(ObjectProvider<ObservationRegistry> observationRegistry, int maxStatementLength) {
+        this.observationRegistry = observationRegistry;
+        this.maxStatementLength = maxStatementLength;
+    }
+
+    @Override
+    public Connection onConnection(Call<Connection> acquire) throws Throwable {
+        return Observation.createNotStarted("jdbc.connection", registry())
+                .contextualName("jdbc getConnection")
+                .observeChecked(acquire::proceed);
+    }
+
+    @Override
+    public Object onExecute(Execution execution, Call<Object> execute) throws Throwable {
+        String sql = execution.sql();
+        Observation observation = Observation.createNotStarted("jdbc.query", registry())
+                .contextualName("jdbc " + execution.operation())
+                .lowCardinalityKeyValue("db.operation", execution.operation());
+        if (sql != null) {
+            observation.highCardinalityKeyValue("db.statement",
+                    sql.length() > maxStatementLength ? sql.substring(0, maxStatementLength) : sql);
+        }
+        if (execution.batchSize() > 0) {
+            observation.highCardinalityKeyValue("db.batch.size", Integer.toString(execution.batchSize()));
+        }
+        return observation.observeChecked(execute::proceed);
+    }
+
+    private ObservationRegistry registry() {
+        return observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+}
@@ -0,0 +1,22 @@
+package net.javaguides.springboot.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// stand-in for an OTLP endpoint during development: one log line per span
+public class LoggingSpanExporter implements SpanExporter {
+    private static final Logger logger = LoggerFactory.getLogger("tracing.spans");
+
+    @Override
+    public void export(List<FinishedSpan> spans) {
+        for (FinishedSpan span : spans) {
+            logger.info("trace={} span={} parent={} name=\"{}\" duration={}us{} {}", span.traceId(), span.spanId(),
+                    span.parentSpanId(), span.name(),
+                    TimeUnit.NANOSECONDS.toMicros(span.endEpochNanos() - span.startEpochNanos()),
+                    span.error() != null ? " error=" + span.error() : "", span.attributes());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.javaguides.springboot.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes each batch as one OTLP/JSON ExportTraceServiceRequest line, the format the OpenTelemetry
+// collector's file exporter writes and its otlpjsonfile receiver reads.
+public class OtlpFileSpanExporter implements SpanExporter {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final String serviceName;
+
+    public OtlpFileSpanExporter(Path file, String serviceName) {
+        this.file = file;
+        this.serviceName = serviceName;
+    }
+
+    @Override
+    public synchronized void export(List<FinishedSpan> spans) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        String line = MAPPER.writeValueAsString(exportRequest(spans)) + "\n";
+        Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Map<String, Object> exportRequest(List<FinishedSpan> spans) {
+        List<Map<String, Object>> otlpSpans = new ArrayList<>(spans.size());
+        for (FinishedSpan span : spans) {
+            Map<String, Object> otlpSpan = new LinkedHashMap<>();
+            otlpSpan.put("traceId", span.traceId());
+            otlpSpan.put("spanId", span.spanId());
+            if (span.parentSpanId() != null) {
+                otlpSpan.put("parentSpanId", span.parentSpanId());
+            }
+            otlpSpan.put("name", span.name());
+            otlpSpan.put("kind", span.kind());
+            // 64-bit integers are strings in OTLP/JSON
+            otlpSpan.put("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+            otlpSpan.put("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+            otlpSpan.put("attributes", attributes(span.attributes()));
+            otlpSpan.put("status", span.error() != null ? Map.of("code", 2, "message", span.error()) : Map.of());
+            otlpSpans.add(otlpSpan);
+        }
+        return Map.of("resourceSpans", List.of(Map.of(
+                "resource", Map.of("attributes", attributes(Map.of("service.name", serviceName))),
+                "scopeSpans", List.of(Map.of(
+                        "scope", Map.of("name", "net.javaguides.springboot"),
+                        "spans", otlpSpans)))));
+    }
+
+    private static List<Map<String, Object>> attributes(Map<String, String> attributes) {
+        List<Map<String, Object>> otlpAttributes = new ArrayList<>(attributes.size());
+        attributes.forEach((key, value) -> otlpAttributes.add(Map.of("key", key, "value", Map.of("stringValue", value))));
+        return otlpAttributes;
+    }
+}
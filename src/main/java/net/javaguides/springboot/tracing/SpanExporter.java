@@ -0,0 +1,8 @@
+package net.javaguides.springboot.tracing;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface SpanExporter {
+    void export(List<FinishedSpan> spans) throws IOException;
+}
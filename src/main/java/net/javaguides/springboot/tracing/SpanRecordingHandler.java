@@ -0,0 +1,86 @@
+package net.javaguides.springboot.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.observation.transport.ReceiverContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Turns observations into spans: every observation started while another is current becomes its
+// child, so the HTTP request, @Observed controller and service methods and the JDBC calls made under
+// them form one trace. Sampling is decided once per trace, at its root.
+public class SpanRecordingHandler implements ObservationHandler<Observation.Context> {
+    static final String TRACEPARENT = "traceparent";
+    private static final Pattern TRACEPARENT_FORMAT =
+            Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+
+    private final double samplingProbability;
+    private final BatchSpanProcessor processor;
+
+    public SpanRecordingHandler(double samplingProbability, BatchSpanProcessor processor) {
+        this.samplingProbability = samplingProbability;
+        this.processor = processor;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(TraceSpan.class, startSpan(context));
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        TraceSpan span = context.get(TraceSpan.class);
+        if (span == null || !span.isSampled()) {
+            return;
+        }
+        long endEpochNanos = span.startEpochNanos() + (System.nanoTime() - span.startNanos());
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (KeyValue keyValue : context.getAllKeyValues()) {
+            attributes.put(keyValue.getKey(), keyValue.getValue());
+        }
+        String name = context.getContextualName() != null ? context.getContextualName() : context.getName();
+        Throwable error = context.getError();
+        processor.onEnd(new FinishedSpan(span.traceId(), span.spanId(), span.parentSpanId(), name, kind(context),
+                span.startEpochNanos(), endEpochNanos, attributes,
+                error != null ? error.getClass().getName() + ": " + error.getMessage() : null));
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    private TraceSpan startSpan(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        TraceSpan parentSpan = parent != null ? parent.getContextView().get(TraceSpan.class) : null;
+        if (parentSpan != null) {
+            return parentSpan.isSampled() ? TraceSpan.start(parentSpan.traceId(), parentSpan.spanId())
+                    : TraceSpan.NOT_SAMPLED;
+        }
+        String traceparent = context instanceof ReceiverContext<?> receiver ? header(receiver, TRACEPARENT) : null;
+        Matcher matcher = traceparent != null ? TRACEPARENT_FORMAT.matcher(traceparent) : null;
+        if (matcher != null && matcher.matches()) {
+            boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+            return sampled ? TraceSpan.start(matcher.group(1), matcher.group(2)) : TraceSpan.NOT_SAMPLED;
+        }
+        return ThreadLocalRandom.current().nextDouble() < samplingProbability
+                ? TraceSpan.start(null, null) : TraceSpan.NOT_SAMPLED;
+    }
+
+    private static int kind(Observation.Context context) {
+        if (context instanceof ReceiverContext<?>) {
+            return 2;
+        }
+        return context.getName().startsWith("jdbc.") ? 3 : 1;
+    }
+
+    private static <C> String header(ReceiverContext<C> context, String name) {
+        return context.getCarrier() != null ? context.getGetter().get(context.getCarrier(), name) : null;
+    }
+}
@@ -0,0 +1,33 @@
+package net.javaguides.springboot.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Span identity and start time, kept in the Observation.Context of the observation it belongs to.
+// Observations of unsampled traces all share NOT_SAMPLED, so their children inherit the decision.
+record TraceSpan(String traceId, String spanId, String parentSpanId, long startEpochNanos, long startNanos) {
+    static final TraceSpan NOT_SAMPLED = new TraceSpan(null, null, null, 0, 0);
+
+    static TraceSpan start(String traceId, String parentSpanId) {
+        long startNanos = System.nanoTime();
+        return new TraceSpan(traceId != null ? traceId : newTraceId(), newSpanId(), parentSpanId,
+                System.currentTimeMillis() * 1_000_000, startNanos);
+    }
+
+    boolean isSampled() {
+        return this != NOT_SAMPLED;
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong()) + hex(random.nextLong());
+    }
+
+    static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
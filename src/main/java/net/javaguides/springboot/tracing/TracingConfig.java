@@ -0,0 +1,46 @@
+package net.javaguides.springboot.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// Spans from Micrometer observations: Spring MVC's http.server.requests, @Observed on
+// EmployeeController and EmployeeServiceImpl, and the JDBC calls seen by JdbcObservations.
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(value = "tracing.enabled", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    @Bean(destroyMethod = "flush")
+    public BatchSpanProcessor batchSpanProcessor(TracingProperties properties, MeterRegistry meterRegistry) {
+        SpanExporter exporter = switch (properties.getExporter()) {
+            case NONE -> spans -> { };
+            case LOGGING -> new LoggingSpanExporter();
+            case OTLP_FILE -> new OtlpFileSpanExporter(properties.getFile(), properties.getServiceName());
+        };
+        return new BatchSpanProcessor(exporter, properties.getQueueCapacity(), meterRegistry);
+    }
+
+    @Bean
+    public SpanRecordingHandler spanRecordingHandler(TracingProperties properties, BatchSpanProcessor processor) {
+        return new SpanRecordingHandler(properties.getSamplingProbability(), processor);
+    }
+
+    @Bean
+    public JdbcObservations jdbcObservations(ObjectProvider<ObservationRegistry> observationRegistry,
+                                             TracingProperties properties) {
+        return new JdbcObservations(observationRegistry, properties.getMaxStatementLength());
+    }
+}
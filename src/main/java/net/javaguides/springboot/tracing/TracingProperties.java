@@ -0,0 +1,30 @@
+package net.javaguides.springboot.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("tracing")
+public class TracingProperties {
+    private boolean enabled = true;
+    // share of new traces that are recorded; an incoming traceparent's sampled flag wins
+    private double samplingProbability = 0.1;
+    private Exporter exporter = Exporter.LOGGING;
+    // OTLP/JSON lines, one export request per line, for the collector's otlpjsonfile receiver
+    private Path file = Path.of(System.getProperty("java.io.tmpdir"), "employee-traces.jsonl");
+    private String serviceName = "employee-service";
+    // finished spans wait here for the next export; spans that do not fit are dropped and counted
+    private int queueCapacity = 2048;
+    private Duration exportInterval = Duration.ofSeconds(1);
+    // longer SQL is cut in the db.statement attribute
+    private int maxStatementLength = 1000;
+
+    public enum Exporter {
+        NONE, LOGGING, OTLP_FILE
+    }
+}
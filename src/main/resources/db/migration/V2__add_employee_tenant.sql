@@ -0,0 +1,2 @@
+alter table employees add column tenant_id varchar(64) not null default 'default';
+create index idx_employees_tenant_email on employees (tenant_id, email);
@@ -0,0 +1,16 @@
+alter table employees add column status varchar(16) not null default 'ACTIVE';
+alter table employees add column terminated_at datetime(6);
+create index idx_employees_status_terminated on employees (status, terminated_at);
+
+create table employees_archive (
+    id bigint not null,
+    tenant_id varchar(64) not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    terminated_at datetime(6) not null,
+    archived_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+create index idx_employees_archive_tenant_email on employees_archive (tenant_id, email);
+create index idx_employees_archive_tenant_last_name on employees_archive (tenant_id, last_name);
@@ -0,0 +1,4 @@
+-- indexes behind the sortable fields of GET /api/employees?sort=; InnoDB appends the primary key to
+-- every secondary index, so each one also serves the id tie-breaker of the keyset
+create index idx_employees_tenant_last_name on employees (tenant_id, last_Name);
+create index idx_employees_tenant_id on employees (tenant_id, id);
@@ -0,0 +1,16 @@
+create table employee_import_jobs (
+    id bigint not null auto_increment,
+    tenant_id varchar(64) not null,
+    file_name varchar(255) not null,
+    status varchar(16) not null,
+    rows_processed bigint not null,
+    imported bigint not null,
+    duplicates bigint not null,
+    invalid bigint not null,
+    error_report_bytes bigint not null,
+    failure_message varchar(1000),
+    created_at datetime(6) not null,
+    started_at datetime(6),
+    finished_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
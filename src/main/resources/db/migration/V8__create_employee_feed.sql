@@ -0,0 +1,10 @@
+create table employee_feed (
+    id bigint not null auto_increment,
+    job_instance_id bigint not null,
+    tenant_id varchar(64) not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+create index idx_employee_feed_instance_email on employee_feed (job_instance_id, email);
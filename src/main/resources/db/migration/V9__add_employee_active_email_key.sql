@@ -0,0 +1,6 @@
+-- one active employee per tenant and email; terminated rows drop out of the key (active_email is
+-- null for them) so a re-hire does not collide with the row waiting for ArchiveMover.
+-- (tenant_id, active_email) is the conflict key of the upsert by email.
+alter table employees add column active_email varchar(255)
+    generated always as (case when status = 'ACTIVE' then email end);
+create unique index uk_employees_tenant_active_email on employees (tenant_id, active_email);
@@ -0,0 +1,45 @@
+package net.javaguides.springboot;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// migrations run against H2 in MySQL mode and Hibernate validates them against the entity mappings
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-prod;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles({"h2", "prod"})
+class ProductionProfileTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    //Junit test for the prod profile schema and deferred repository bootstrap
+    @DisplayName("Junit test for the prod profile schema and deferred repository bootstrap")
+    @Test
+    void givenMigratedSchema_whenSaveEmployee_thenFindById() {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Fan")
+                .lastName("Jups")
+                .email("prod@gmail.com")
+                .build();
+
+        //when - action or the behaviour that we are going to test
+        Employee savedEmployee = employeeRepository.save(employee);
+        Optional<Employee> foundEmployee = employeeRepository.findById(savedEmployee.getId());
+
+        //then - verify the output
+        assertThat(foundEmployee).isPresent();
+        assertThat(foundEmployee.get().getEmail()).isEqualTo("prod@gmail.com");
+    }
+}
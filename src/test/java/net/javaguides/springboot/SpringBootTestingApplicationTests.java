@@ -1,10 +1,9 @@
 package net.javaguides.springboot;
 
+import net.javaguides.springboot.integration.testcontainers.AbstractIntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class SpringBootTestingApplicationTests {
+class SpringBootTestingApplicationTests extends AbstractIntegrationTest {
 
     @Test
     void contextLoads() {
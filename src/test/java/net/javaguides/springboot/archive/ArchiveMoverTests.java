@@ -0,0 +1,78 @@
+package net.javaguides.springboot.archive;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-archive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "archive.grace-period=0s",
+        "archive.batch-size=3",
+        "archive.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"h2", "prod"})
+class ArchiveMoverTests {
+    @Autowired
+    private ArchiveMover archiveMover;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    //Junit test for soft delete followed by archival in batches
+    @DisplayName("Junit test for soft delete followed by archival in batches")
+    @Test
+    void givenTerminatedEmployees_whenArchiveTerminated_thenRowsMoveToArchive() throws Exception {
+        //given - precondition or setup
+        List<Employee> employees = IntStream.range(0, 10)
+                .mapToObj(i -> employeeRepository.save(Employee.builder()
+                        .firstName("Fan")
+                        .lastName(i < 7 ? "Leaver" : "Stayer")
+                        .email("archive" + i + "@gmail.com")
+                        .build()))
+                .toList();
+        employees.subList(0, 7).forEach(employee -> employeeService.deleteEmployee(employee.getId()));
+        assertThat(employeeRepository.findAll()).hasSize(3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Integer.class)).isEqualTo(10);
+
+        //when - action or the behaviour that we are going to test
+        archiveMover.archiveTerminated();
+
+        //then - verify the output
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees_archive", Integer.class)).isEqualTo(7);
+        assertThat(employeeRepository.findById(employees.get(0).getId())).isEmpty();
+        mockMvc.perform(get("/api/employees/archive").param("lastName", "Lea").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].email", is("archive0@gmail.com")));
+        mockMvc.perform(get("/api/employees/archive").param("email", "archive8@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
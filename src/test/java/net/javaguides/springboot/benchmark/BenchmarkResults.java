@@ -0,0 +1,63 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Tiny harness for the @Tag("benchmark") tests: warms up, times a block and writes the
+// collected numbers to target/benchmarks/<name>.json.
+public class BenchmarkResults {
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkResults.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // published once per meanNanos call; a volatile write the JIT has to keep, and with it the work
+    private static volatile long sink;
+
+    private final String name;
+    private final Map<String, Object> results = new LinkedHashMap<>();
+
+    public BenchmarkResults(String name) {
+        this.name = name;
+    }
+
+    // runs the block warmup + measured times and returns the mean nanoseconds per measured run;
+    // the block returns something derived from its work so the JIT cannot drop it
+    public static double meanNanos(int warmups, int iterations, LongSupplier block) {
+        long total = 0;
+        for (int i = 0; i < warmups; i++) {
+            total += block.getAsLong();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            total += block.getAsLong();
+        }
+        double mean = (System.nanoTime() - start) / (double) iterations;
+        sink = total;
+        return mean;
+    }
+
+    public BenchmarkResults put(String key, Object value) {
+        results.put(key, value);
+        return this;
+    }
+
+    public Map<String, Object> results() {
+        return results;
+    }
+
+    public void write() throws IOException {
+        Path directory = Path.of("target", "benchmarks");
+        Files.createDirectories(directory);
+        String json = OBJECT_MAPPER.writeValueAsString(results);
+        Files.writeString(directory.resolve(name + ".json"), json);
+        logger.info("{}: {}", name, json);
+    }
+}
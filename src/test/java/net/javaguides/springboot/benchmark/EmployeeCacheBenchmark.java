@@ -0,0 +1,104 @@
+package net.javaguides.springboot.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.cache.EmployeeCache;
+import net.javaguides.springboot.cache.EmployeeCacheProperties;
+import net.javaguides.springboot.cache.InMemorySharedCache;
+import net.javaguides.springboot.cache.SharedCache;
+import net.javaguides.springboot.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=EmployeeCacheBenchmark
+// 12 replicas reading employees by id with a Zipf(1.0) key popularity over 10k employees, 1% of the
+// operations being writes that evict through a random replica: database loads with the two-tier
+// cache against one load per read without it, and the time of a read served by the cache
+@Tag("benchmark")
+class EmployeeCacheBenchmark {
+    private static final int REPLICAS = 12;
+    private static final int EMPLOYEES = 10_000;
+    private static final int OPERATIONS = 1_200_000;
+    private static final double WRITE_RATIO = 0.01;
+
+    //Benchmark for database loads of 12 replicas behind the two-tier cache
+    @DisplayName("Benchmark for database loads of 12 replicas behind the two-tier cache")
+    @Test
+    void givenTwelveReplicas_whenZipfReadsAndWrites_thenReportDatabaseLoads() throws Exception {
+        //given - precondition or setup
+        SharedCache shared = new InMemorySharedCache(EMPLOYEES * 4);
+        List<EmployeeCache> replicas = IntStream.range(0, REPLICAS)
+                .mapToObj(i -> new EmployeeCache(shared, new EmployeeCacheProperties(), new SimpleMeterRegistry()))
+                .toList();
+        double[] popularity = zipfCdf(EMPLOYEES);
+        Random random = new Random(42);
+        long reads = 0;
+        long loads = 0;
+
+        //when - action or the behaviour that we are going to test
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            EmployeeCache replica = replicas.get(random.nextInt(REPLICAS));
+            long id = sample(popularity, random) + 1;
+            if (random.nextDouble() < WRITE_RATIO) {
+                replica.evict(id);
+                continue;
+            }
+            reads++;
+            Optional<Employee> cached = replica.get(id);
+            if (cached.isEmpty()) {
+                loads++;
+                replica.put(load(id));
+            }
+        }
+        double nanosPerOperation = (System.nanoTime() - start) / (double) OPERATIONS;
+        EmployeeCache replica = replicas.get(0);
+        replica.put(load(1));
+        double nanosPerHit = BenchmarkResults.meanNanos(100_000, 1_000_000, () -> replica.get(1).get().getId());
+
+        BenchmarkResults results = new BenchmarkResults("employee-cache")
+                .put("replicas", REPLICAS)
+                .put("employees", EMPLOYEES)
+                .put("reads", reads)
+                .put("databaseLoadsWithoutCache", reads)
+                .put("databaseLoadsWithCache", loads)
+                .put("loadReduction", (double) reads / loads)
+                .put("nanosPerOperation", nanosPerOperation)
+                .put("nanosPerNearHit", nanosPerHit);
+        results.write();
+
+        //then - verify the output
+        assertThat(loads).isLessThan(reads / 10);
+    }
+
+    private static Employee load(long id) {
+        return Employee.builder().id(id).firstName("First" + id).lastName("Last" + id)
+                .email("employee" + id + "@gmail.com").tenantId("default").build();
+    }
+
+    private static double[] zipfCdf(int n) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / k;
+            cdf[k - 1] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+    }
+}
@@ -0,0 +1,96 @@
+package net.javaguides.springboot.benchmark;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import net.javaguides.springboot.grpc.GrpcServerLifecycle;
+import net.javaguides.springboot.grpc.proto.EmployeeServiceGrpc;
+import net.javaguides.springboot.grpc.proto.GetEmployeeRequest;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=EmployeeGrpcBenchmark
+// client and server share the JVM, so CPU per call covers both sides of the call
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:ems-grpc-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("h2")
+class EmployeeGrpcBenchmark {
+    private static final int WARMUPS = 2_000;
+    private static final int CALLS = 5_000;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private GrpcServerLifecycle grpcServer;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    //Benchmark for GET /api/employees/{id} against the GetEmployee rpc
+    @DisplayName("Benchmark for REST against gRPC get employee by id")
+    @Test
+    void givenSavedEmployee_whenGetByIdOverRestAndGrpc_thenReportLatencyAndCpu() throws IOException {
+        //given - precondition or setup
+        long id = employeeRepository.save(Employee.builder()
+                .firstName("Fan")
+                .lastName("Jups")
+                .email("grpc-benchmark@gmail.com")
+                .build()).getId();
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest restRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/" + id))
+                .GET()
+                .build();
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort())
+                .usePlaintext()
+                .build();
+        EmployeeServiceGrpc.EmployeeServiceBlockingStub stub = EmployeeServiceGrpc.newBlockingStub(channel);
+        GetEmployeeRequest grpcRequest = GetEmployeeRequest.newBuilder().setId(id).build();
+        BenchmarkResults results = new BenchmarkResults("grpc-vs-rest").put("calls", CALLS);
+
+        //when - action or the behaviour that we are going to test
+        measure(results, "rest", () -> {
+            try {
+                return httpClient.send(restRequest, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+        measure(results, "grpc", () -> stub.getEmployee(grpcRequest).getSerializedSize());
+        channel.shutdownNow();
+        results.write();
+
+        //then - verify the output
+        assertThat(results.results()).containsKeys("rest.microsPerCall", "grpc.microsPerCall");
+    }
+
+    private static void measure(BenchmarkResults results, String name, LongSupplier call) {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        BenchmarkResults.meanNanos(WARMUPS, 0, call);
+        long cpuBefore = os.getProcessCpuTime();
+        double nanos = BenchmarkResults.meanNanos(0, CALLS, call);
+        long cpuNanos = os.getProcessCpuTime() - cpuBefore;
+        results.put(name + ".microsPerCall", nanos / 1_000)
+                .put(name + ".cpuMicrosPerCall", cpuNanos / 1_000.0 / CALLS);
+    }
+}
@@ -0,0 +1,93 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.model.EmployeeImportJob;
+import net.javaguides.springboot.model.ImportStatus;
+import net.javaguides.springboot.repository.EmployeeImportJobRepository;
+import net.javaguides.springboot.service.EmployeeImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=EmployeeImportBenchmark [-Dbenchmark.rows=500000]
+// imports a generated CSV (1% invalid, 1% duplicate rows) into the Flyway schema, indexes included
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-import-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles({"h2", "prod"})
+class EmployeeImportBenchmark {
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+    @Autowired
+    private EmployeeImportJobRepository jobRepository;
+
+    @DynamicPropertySource
+    static void importProperties(DynamicPropertyRegistry registry) {
+        registry.add("employee-import.directory", () -> directory.resolve("imports").toString());
+    }
+
+    //Benchmark for importing a large CSV end to end
+    @DisplayName("Benchmark for importing a large CSV end to end")
+    @Test
+    void givenLargeCsv_whenImport_thenReportRowsPerSecond() throws Exception {
+        //given - precondition or setup
+        int rows = Integer.getInteger("benchmark.rows", 500_000);
+        Path csv = directory.resolve("employees.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("firstName,lastName,email\n");
+            for (int i = 1; i <= rows; i++) {
+                if (i % 100 == 0) {
+                    writer.write("First" + i + ",Last" + i + ",not-an-email\n");
+                } else if (i % 100 == 1 && i > 1) {
+                    writer.write("First" + i + ",Last" + i + ",employee" + (i - 2) + "@gmail.com\n");
+                } else {
+                    writer.write("First" + i + ",Last" + i + ",employee" + i + "@gmail.com\n");
+                }
+            }
+        }
+        BenchmarkResults results = new BenchmarkResults("employee-import")
+                .put("rows", rows)
+                .put("fileBytes", Files.size(csv));
+
+        //when - action or the behaviour that we are going to test
+        long start = System.nanoTime();
+        EmployeeImportJob job;
+        try (InputStream content = Files.newInputStream(csv)) {
+            job = employeeImportService.startImport("employees.csv", content);
+        }
+        do {
+            Thread.sleep(50);
+            job = jobRepository.findById(job.getId()).orElseThrow();
+        } while (job.getStatus() == ImportStatus.QUEUED || job.getStatus() == ImportStatus.RUNNING);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        results.put("seconds", seconds)
+                .put("rowsPerSecond", rows / seconds)
+                .put("imported", job.getImported())
+                .put("duplicates", job.getDuplicates())
+                .put("invalid", job.getInvalid());
+        results.write();
+
+        //then - verify the output
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getImported() + job.getDuplicates() + job.getInvalid()).isEqualTo(rows);
+    }
+}
@@ -0,0 +1,77 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import net.javaguides.springboot.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=EmployeeSerializationBenchmark
+@Tag("benchmark")
+class EmployeeSerializationBenchmark {
+    private static final int EMPLOYEES = 10_000;
+
+    //Benchmark for serializing 10k employees with each ObjectMapper flavour
+    @DisplayName("Benchmark for serializing 10k employees")
+    @Test
+    void givenTenThousandEmployees_whenSerialize_thenReportCostAndSize() throws IOException {
+        //given - precondition or setup
+        List<Employee> employees = LongStream.rangeClosed(1, EMPLOYEES)
+                .mapToObj(id -> Employee.builder()
+                        .id(id)
+                        .firstName("First" + id)
+                        .lastName("Last" + id)
+                        .email("employee" + id + "@gmail.com")
+                        .build())
+                .toList();
+        BenchmarkResults results = new BenchmarkResults("serialization").put("employees", EMPLOYEES);
+
+        //when - action or the behaviour that we are going to test
+        measure(results, "json", new ObjectMapper(), employees);
+        measure(results, "json-blackbird", new ObjectMapper().registerModule(new BlackbirdModule()), employees);
+        measure(results, "smile-blackbird", new ObjectMapper(new SmileFactory()).registerModule(new BlackbirdModule()), employees);
+        measure(results, "cbor-blackbird", new ObjectMapper(new CBORFactory()).registerModule(new BlackbirdModule()), employees);
+        results.write();
+
+        //then - verify the output
+        assertThat(results.results()).containsKeys("json.msPer10k", "json-blackbird.msPer10k");
+    }
+
+    private static void measure(BenchmarkResults results, String name, ObjectMapper objectMapper,
+                                List<Employee> employees) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(employees);
+        double nanos = BenchmarkResults.meanNanos(50, 100, () -> serialize(objectMapper, employees).length);
+        results.put(name + ".msPer10k", nanos / 1_000_000)
+                .put(name + ".bytes", body.length)
+                .put(name + ".gzipBytes", gzip(body).length);
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, List<Employee> employees) {
+        try {
+            return objectMapper.writeValueAsBytes(employees);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,58 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.hotkeys.HotKeyProperties;
+import net.javaguides.springboot.hotkeys.HotKeyTracker;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=HotKeyTrackerBenchmark
+// cost added to a request by the hot-key tracking: one read recorded for a cold (uniform over 1M ids)
+// and for a hot id, and one endpoint request, next to the sketch's fixed footprint
+@Tag("benchmark")
+class HotKeyTrackerBenchmark {
+    private static final int IDS = 1_000_000;
+
+    //Benchmark for the per-request cost of hot-key tracking
+    @DisplayName("Benchmark for the per-request cost of hot-key tracking")
+    @Test
+    void givenTracker_whenRecordingReadsAndRequests_thenReportNanosPerCall() throws Exception {
+        //given - precondition or setup
+        HotKeyProperties properties = new HotKeyProperties();
+        HotKeyTracker tracker = new HotKeyTracker(properties);
+        Random random = new Random(42);
+        long[] ids = random.longs(1 << 16, 1, IDS + 1).toArray();
+        int[] next = {0};
+
+        //when - action or the behaviour that we are going to test
+        double nanosPerColdRead = BenchmarkResults.meanNanos(200_000, 2_000_000, () -> {
+            long id = ids[next[0]++ & (ids.length - 1)];
+            tracker.recordRead(id);
+            return id;
+        });
+        double nanosPerHotRead = BenchmarkResults.meanNanos(200_000, 2_000_000, () -> {
+            tracker.recordRead(7);
+            return 7;
+        });
+        double nanosPerRequest = BenchmarkResults.meanNanos(200_000, 2_000_000, () -> {
+            tracker.recordRequest("getEmployeeById");
+            return 1;
+        });
+
+        BenchmarkResults results = new BenchmarkResults("hot-key-tracker")
+                .put("sketchBytes", (long) properties.getDepth() * properties.getWidth() * Long.BYTES)
+                .put("nanosPerColdRead", nanosPerColdRead)
+                .put("nanosPerHotRead", nanosPerHotRead)
+                .put("nanosPerEndpointRequest", nanosPerRequest);
+        results.write();
+
+        //then - verify the output
+        assertThat(tracker.report(TenantContext.DEFAULT_TENANT).employees().get(0).id()).isEqualTo(7);
+        assertThat(nanosPerColdRead).isLessThan(2_000);
+    }
+}
@@ -0,0 +1,95 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=OptimisticLockContentionBenchmark [-Dbenchmark.duration=PT5S]
+// N writers hammer the same row through updateEmployee(id, changes); every committed update must
+// bump the version exactly once, so the final version also proves no update was lost
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ems-contention;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("h2")
+class OptimisticLockContentionBenchmark {
+    private static final int[] WRITERS = {1, 2, 4, 8, 16};
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    //Benchmark for concurrent writers to a single employee row
+    @DisplayName("Benchmark for concurrent writers to a single employee row")
+    @Test
+    void givenOneRow_whenNConcurrentWriters_thenReportThroughputAndGiveUps() throws Exception {
+        //given - precondition or setup
+        Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT3S"));
+        long id = employeeRepository.save(Employee.builder()
+                .firstName("Fan")
+                .lastName("Jups")
+                .email("contention@gmail.com")
+                .build()).getId();
+        BenchmarkResults results = new BenchmarkResults("optimistic-lock-contention")
+                .put("durationSeconds", duration.toMillis() / 1000.0);
+
+        //when - action or the behaviour that we are going to test
+        for (int writers : WRITERS) {
+            long versionBefore = employeeRepository.findById(id).orElseThrow().getVersion();
+            LongAdder committed = new LongAdder();
+            LongAdder gaveUp = new LongAdder();
+            run(id, writers, duration, committed, gaveUp);
+            long versionAfter = employeeRepository.findById(id).orElseThrow().getVersion();
+
+            //then - verify the output
+            assertThat(versionAfter - versionBefore).isEqualTo(committed.sum());
+            Map<String, Object> level = new LinkedHashMap<>();
+            level.put("updatesPerSecond", committed.sum() / (duration.toNanos() / 1e9));
+            level.put("committed", committed.sum());
+            level.put("gaveUpAfterRetries", gaveUp.sum());
+            results.put("writers-" + writers, level);
+        }
+        results.write();
+    }
+
+    private void run(long id, int writers, Duration duration, LongAdder committed, LongAdder gaveUp)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        for (int writer = 0; writer < writers; writer++) {
+            String name = "Writer" + writer + "-";
+            executor.execute(() -> {
+                // a new value every time, otherwise Hibernate skips the UPDATE and the version bump
+                for (long update = 0; System.nanoTime() < deadline; update++) {
+                    String firstName = name + update;
+                    try {
+                        employeeService.updateEmployee(id, employee -> employee.setFirstName(firstName));
+                        committed.increment();
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        gaveUp.increment();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("writers did not finish");
+        }
+    }
+}
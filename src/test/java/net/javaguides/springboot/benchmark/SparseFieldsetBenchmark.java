@@ -0,0 +1,98 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// mvn test -Pperf -Dtest=SparseFieldsetBenchmark
+// GET /api/employees with and without ?fields=id,firstName over 10k rows: response bytes, time per
+// request, and the bytes per row the database has to read and return for the selected columns
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ems-fields;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SparseFieldsetBenchmark {
+    private static final int EMPLOYEES = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //Benchmark for full employees against a sparse fieldset
+    @DisplayName("Benchmark for full employees against a sparse fieldset")
+    @Test
+    void givenTenThousandEmployees_whenGetWithAndWithoutFields_thenReportBytesAndTime() throws Exception {
+        //given - precondition or setup
+        employeeRepository.saveAll(IntStream.rangeClosed(1, EMPLOYEES)
+                .mapToObj(i -> Employee.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("employee" + i + "@gmail.com")
+                        .build())
+                .toList());
+        BenchmarkResults results = new BenchmarkResults("sparse-fieldsets").put("employees", EMPLOYEES);
+
+        //when - action or the behaviour that we are going to test
+        Map<String, Object> full = measure(get("/api/employees"),
+                "select id, first_name, last_Name, email, tenant_id, status, terminated_at, version");
+        Map<String, Object> sparse = measure(get("/api/employees").param("fields", "id,firstName"),
+                "select id, first_name");
+        results.put("full", full).put("fields=id,firstName", sparse)
+                .put("responseBytesSaved", 1 - (double) (int) sparse.get("responseBytes") / (int) full.get("responseBytes"))
+                .put("rowBytesSaved", 1 - (double) sparse.get("rowBytes") / (double) full.get("rowBytes"));
+        results.write();
+
+        //then - verify the output
+        assertThat((int) sparse.get("responseBytes")).isLessThan((int) full.get("responseBytes") / 2);
+    }
+
+    private Map<String, Object> measure(MockHttpServletRequestBuilder request, String columns) throws Exception {
+        int responseBytes = mockMvc.perform(request).andReturn().getResponse().getContentAsByteArray().length;
+        double nanos = BenchmarkResults.meanNanos(10, 30, () -> {
+            try {
+                return mockMvc.perform(request).andReturn().getResponse().getContentLength();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Map<String, Object> level = new LinkedHashMap<>();
+        level.put("msPerRequest", nanos / 1_000_000);
+        level.put("responseBytes", responseBytes);
+        level.put("rowBytes", averageRowBytes(columns));
+        return level;
+    }
+
+    // bytes of the selected values per row, as a stand-in for what the driver reads off the wire
+    private double averageRowBytes(String columns) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(columns + " from employees");
+        long bytes = 0;
+        for (Map<String, Object> row : rows) {
+            for (Object value : row.values()) {
+                bytes += value == null ? 1 : value instanceof Number ? 8
+                        : value.toString().getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return bytes / (double) rows.size();
+    }
+}
@@ -0,0 +1,99 @@
+package net.javaguides.springboot.cache;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-warmup;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "employee-cache.warmup.size=2"
+})
+@ActiveProfiles("h2")
+class CacheWarmupTests {
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private CacheWarmup cacheWarmup;
+    @Autowired
+    private EmployeeCache employeeCache;
+    @Autowired
+    private EmployeeService employeeService;
+
+    @DynamicPropertySource
+    static void hotSetFile(DynamicPropertyRegistry registry) {
+        registry.add("employee-cache.warmup.hot-set-file", () -> directory.resolve("hot-set.csv").toString());
+    }
+
+    //Junit test for warming the cache from the hot set the last run saved
+    @DisplayName("Junit test for warming the cache from the saved hot set")
+    @Test
+    void givenSavedHotSet_whenWarmUp_thenHottestEmployeesAreCached() {
+        //given - precondition or setup
+        List<Employee> employees = TenantContext.callAs("warm", () -> List.of(
+                employeeService.saveEmployee(employee("hot@gmail.com")),
+                employeeService.saveEmployee(employee("warm@gmail.com")),
+                employeeService.saveEmployee(employee("cold@gmail.com"))));
+        TenantContext.runAs("warm", () -> {
+            for (int i = 0; i < 3; i++) {
+                employeeService.getEmployeeById(employees.get(0).getId());
+            }
+            employeeService.getEmployeeById(employees.get(1).getId());
+            employeeService.getEmployeeById(employees.get(1).getId());
+            employeeService.getEmployeeById(employees.get(2).getId());
+        });
+        cacheWarmup.persistHotSet();
+        TenantContext.runAs("warm", () -> employees.forEach(employee -> employeeCache.evict(employee.getId())));
+
+        //when - action or the behaviour that we are going to test
+        int loaded = cacheWarmup.warmUp();
+
+        //then - verify the output
+        assertThat(loaded).isEqualTo(2);
+        TenantContext.runAs("warm", () -> {
+            assertThat(employeeCache.get(employees.get(0).getId())).isPresent();
+            assertThat(employeeCache.get(employees.get(1).getId())).isPresent();
+            assertThat(employeeCache.get(employees.get(2).getId())).isEmpty();
+        });
+    }
+
+    //Junit test for the first start, when there is no hot set yet
+    @DisplayName("Junit test for warming the cache with the most recent employees without a hot set")
+    @Test
+    void givenNoHotSet_whenWarmUp_thenMostRecentEmployeesAreCached() throws IOException {
+        //given - precondition or setup
+        Files.deleteIfExists(directory.resolve("hot-set.csv"));
+        Employee older = TenantContext.callAs("first", () -> employeeService.saveEmployee(employee("old@gmail.com")));
+        Employee newer = TenantContext.callAs("first", () -> employeeService.saveEmployee(employee("new@gmail.com")));
+        Employee newest = TenantContext.callAs("first", () -> employeeService.saveEmployee(employee("now@gmail.com")));
+
+        //when - action or the behaviour that we are going to test
+        cacheWarmup.warmUp();
+
+        //then - verify the output
+        TenantContext.runAs("first", () -> {
+            assertThat(employeeCache.get(newest.getId())).isPresent();
+            assertThat(employeeCache.get(newer.getId())).isPresent();
+            assertThat(employeeCache.get(older.getId())).isEmpty();
+        });
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("Ramesh").lastName("Fadatare").email(email).build();
+    }
+}
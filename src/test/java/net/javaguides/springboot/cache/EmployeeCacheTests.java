@@ -0,0 +1,103 @@
+package net.javaguides.springboot.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.EmployeeStatus;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeCacheTests {
+    private final AtomicLong nanos = new AtomicLong();
+    private SharedCache shared;
+    private EmployeeCache node1;
+    private EmployeeCache node2;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        shared = new InMemorySharedCache(1_000, nanos::get);
+        node1 = new EmployeeCache(shared, properties, new SimpleMeterRegistry(), nanos::get);
+        node2 = new EmployeeCache(shared, properties, new SimpleMeterRegistry(), nanos::get);
+        employee = Employee.builder().id(7L).firstName("Fan").lastName("Jups").email("fjk@gmail.com")
+                .tenantId(TenantContext.DEFAULT_TENANT).version(3).build();
+    }
+
+    //Junit test for reading an entry another node cached, with every property intact
+    @DisplayName("Junit test for reading an employee another node cached")
+    @Test
+    void givenEmployeeCachedOnOneNode_whenGetOnAnother_thenServedFromSharedTier() {
+        //given - precondition or setup
+        node1.put(employee);
+
+        //when - action or the behaviour that we are going to test
+        Employee byId = node2.get(7L).orElseThrow();
+        Employee byEmail = node2.getByEmail("fjk@gmail.com").orElseThrow();
+
+        //then - verify the output
+        assertThat(byId).usingRecursiveComparison().isEqualTo(employee);
+        assertThat(byId.getStatus()).isEqualTo(EmployeeStatus.ACTIVE);
+        assertThat(byId).isNotSameAs(byEmail);
+        assertThat(TenantContext.callAs("other", () -> node2.get(7L))).isEmpty();
+    }
+
+    //Junit test for invalidating every node's near cache on a write
+    @DisplayName("Junit test for a write on one node invalidating the near cache of the others")
+    @Test
+    void givenEmployeeInBothNearCaches_whenEvictEmailOnOneNode_thenGoneEverywhere() {
+        //given - precondition or setup
+        node1.put(employee);
+        node2.get(7L);
+
+        //when - action or the behaviour that we are going to test
+        node1.evictEmail("fjk@gmail.com");
+
+        //then - verify the output
+        assertThat(node2.get(7L)).isEmpty();
+        assertThat(node2.getByEmail("fjk@gmail.com")).isEmpty();
+        assertThat(node1.get(7L)).isEmpty();
+    }
+
+    //Junit test for the near cache expiring when an invalidation is lost
+    @DisplayName("Junit test for near entries expiring after the near TTL")
+    @Test
+    void givenLostInvalidation_whenNearTtlPasses_thenStaleEntryExpires() {
+        //given - precondition or setup
+        node1.put(employee);
+        node2.get(7L);
+        shared.evict("employee:" + TenantContext.DEFAULT_TENANT + ":id:7");
+
+        //when - action or the behaviour that we are going to test
+        boolean staleBeforeTtl = node2.get(7L).isPresent();
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        //then - verify the output
+        assertThat(staleBeforeTtl).isTrue();
+        assertThat(node2.get(7L)).isEmpty();
+    }
+
+    //Junit test for the in-memory shared tier not outliving the near TTL
+    @DisplayName("Junit test for the in-memory shared tier capping entries at its max TTL")
+    @Test
+    void givenInMemorySharedTierCappedAtNearTtl_whenNearTtlPasses_thenSharedEntryExpiresToo() {
+        //given - precondition or setup
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        SharedCache nodeLocal = new InMemorySharedCache(1_000, properties.getNearTtl(), nanos::get);
+        nodeLocal.put("key", new byte[]{1}, properties.getSharedTtl());
+
+        //when - action or the behaviour that we are going to test
+        boolean presentBeforeTtl = nodeLocal.get("key") != null;
+        nanos.addAndGet(properties.getNearTtl().plusSeconds(1).toNanos());
+
+        //then - verify the output
+        assertThat(presentBeforeTtl).isTrue();
+        assertThat(nodeLocal.get("key")).isNull();
+    }
+}
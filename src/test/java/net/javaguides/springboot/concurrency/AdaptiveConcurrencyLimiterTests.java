@@ -0,0 +1,89 @@
+package net.javaguides.springboot.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    //Junit test for growing the limit while latency stays flat
+    @DisplayName("Junit test for growing the limit while latency stays flat")
+    @Test
+    void givenFlatLatency_whenLoaded_thenLimitGrows() {
+        //given - precondition or setup
+        VegasLimit limit = new VegasLimit(10, 1, 100, 1000);
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(MILLISECOND, limit.getLimit(), false);
+        }
+
+        //then - verify the output
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+
+    //Junit test for shrinking the limit once calls queue up
+    @DisplayName("Junit test for shrinking the limit once calls queue up")
+    @Test
+    void givenRisingLatency_whenLoaded_thenLimitShrinks() {
+        //given - precondition or setup
+        VegasLimit limit = new VegasLimit(50, 1, 100, 1000);
+        limit.onSample(MILLISECOND, 50, false);
+        int before = limit.getLimit();
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(4 * MILLISECOND, limit.getLimit(), false);
+        }
+
+        //then - verify the output
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    //Junit test for backing off on timeouts
+    @DisplayName("Junit test for backing off on timeouts")
+    @Test
+    void givenDroppedCall_whenSampled_thenLimitBacksOff() {
+        //given - precondition or setup
+        VegasLimit limit = new VegasLimit(50, 1, 100, 1000);
+
+        //when - action or the behaviour that we are going to test
+        limit.onSample(MILLISECOND, 50, true);
+
+        //then - verify the output
+        assertThat(limit.getLimit()).isEqualTo(45);
+    }
+
+    //Junit test for rejecting and queueing over the limit
+    @DisplayName("Junit test for rejecting and queueing over the limit")
+    @Test
+    void givenFullLimiter_whenAcquire_thenRejectOrWaitForRelease() throws Exception {
+        //given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new VegasLimit(1, 1, 1, 1000), 10);
+        assertThat(limiter.acquire(0)).isTrue();
+
+        //when - action or the behaviour that we are going to test
+        boolean rejected = limiter.acquire(0);
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        limiter.release(MILLISECOND, false);
+
+        //then - verify the output
+        assertThat(rejected).isFalse();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+}
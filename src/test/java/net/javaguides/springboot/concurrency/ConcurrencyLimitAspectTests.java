@@ -0,0 +1,119 @@
+package net.javaguides.springboot.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ConcurrencyLimitAspectTests {
+    private AdaptiveConcurrencyLimiter limiter;
+    private EmployeeRepository repository;
+    private EmployeeService target;
+    private EmployeeService service;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        limiter = mock(AdaptiveConcurrencyLimiter.class);
+        given(limiter.acquire(anyLong())).willReturn(true);
+        ConcurrencyLimitAspect aspect = new ConcurrencyLimitAspect(limiter, new ConcurrencyLimitProperties(),
+                new SimpleMeterRegistry());
+        repository = proxy(mock(EmployeeRepository.class), aspect);
+        target = mock(EmployeeService.class);
+        service = proxy(target, aspect);
+    }
+
+    //Junit test for sampling only calls that reached the database
+    @DisplayName("Junit test for a repository call feeding an RTT sample")
+    @Test
+    void givenCallThatQueriesTheRepository_whenItReturns_thenRttIsSampled() {
+        //given - precondition or setup
+        given(target.getEmployeeById(1L)).willAnswer(invocation -> repository.findById(1L));
+
+        //when - action or the behaviour that we are going to test
+        Optional<Employee> employee = service.getEmployeeById(1L);
+
+        //then - verify the output
+        assertThat(employee).isEmpty();
+        verify(limiter).release(anyLong(), eq(false));
+        verify(limiter, never()).release();
+    }
+
+    //Junit test for cache hits and in-memory calls not dragging minRtt down
+    @DisplayName("Junit test for a cache hit releasing its permit without an RTT sample")
+    @Test
+    void givenCallServedFromMemory_whenItReturns_thenPermitIsReleasedWithoutSample() throws Exception {
+        //given - precondition or setup
+        given(target.getEmployeeById(1L)).willReturn(Optional.of(new Employee()));
+
+        //when - action or the behaviour that we are going to test
+        service.getEmployeeById(1L);
+        service.getEmployeeStats();
+
+        //then - verify the output
+        verify(limiter).release();
+        verify(limiter, never()).release(anyLong(), eq(false));
+        verify(limiter).acquire(anyLong());
+    }
+
+    //Junit test for lost optimistic locks not counting as overload
+    @DisplayName("Junit test for an optimistic lock failure leaving the limit unchanged")
+    @Test
+    void givenOptimisticLockFailure_whenCallThrows_thenLimitIsUnchanged() {
+        //given - precondition or setup
+        AdaptiveConcurrencyLimiter realLimiter = new AdaptiveConcurrencyLimiter(new VegasLimit(20, 1, 200, 100), 0);
+        EmployeeService limited = proxy(target, new ConcurrencyLimitAspect(realLimiter,
+                new ConcurrencyLimitProperties(), new SimpleMeterRegistry()));
+        given(target.getEmployeeById(1L)).willAnswer(invocation -> {
+            repository.findById(1L);
+            throw new ObjectOptimisticLockingFailureException(Employee.class, 1L);
+        });
+
+        //when - action or the behaviour that we are going to test
+        assertThatThrownBy(() -> limited.getEmployeeById(1L)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        //then - verify the output
+        assertThat(realLimiter.getLimit()).isEqualTo(20);
+        assertThat(realLimiter.getInFlight()).isZero();
+    }
+
+    //Junit test for query timeouts backing the limit off
+    @DisplayName("Junit test for a query timeout shrinking the limit")
+    @Test
+    void givenQueryTimeout_whenCallThrows_thenLimitShrinks() {
+        //given - precondition or setup
+        AdaptiveConcurrencyLimiter realLimiter = new AdaptiveConcurrencyLimiter(new VegasLimit(20, 1, 200, 100), 0);
+        EmployeeService limited = proxy(target, new ConcurrencyLimitAspect(realLimiter,
+                new ConcurrencyLimitProperties(), new SimpleMeterRegistry()));
+        given(target.getEmployeeById(1L)).willThrow(new QueryTimeoutException("statement timed out"));
+
+        //when - action or the behaviour that we are going to test
+        assertThatThrownBy(() -> limited.getEmployeeById(1L)).isInstanceOf(QueryTimeoutException.class);
+
+        //then - verify the output
+        assertThat(realLimiter.getLimit()).isEqualTo(18);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, ConcurrencyLimitAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+}
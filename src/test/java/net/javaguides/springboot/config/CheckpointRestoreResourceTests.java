@@ -0,0 +1,54 @@
+package net.javaguides.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CheckpointRestoreResourceTests {
+    @Autowired
+    private CheckpointRestoreResource checkpointRestoreResource;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    //Junit test for a checkpoint/restore cycle against H2
+    @DisplayName("Junit test for a checkpoint/restore cycle against H2")
+    @Test
+    void givenOpenConnections_whenCheckpointAndRestore_thenPoolIsDrainedAndReopened() throws Exception {
+        //given - precondition or setup
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Fan")
+                .lastName("Jups")
+                .email("crac@gmail.com")
+                .build());
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertThat(hikari.getHikariPoolMXBean().getTotalConnections()).isPositive();
+
+        //when - action or the behaviour that we are going to test
+        checkpointRestoreResource.beforeCheckpoint(null);
+
+        //then - verify the output
+        assertThat(hikari.getHikariPoolMXBean().getTotalConnections()).isZero();
+
+        //when - action or the behaviour that we are going to test
+        checkpointRestoreResource.afterRestore(null);
+        Optional<Employee> restoredEmployee = employeeRepository.findById(savedEmployee.getId());
+
+        //then - verify the output
+        assertThat(restoredEmployee).isPresent();
+        assertThat(restoredEmployee.get().getEmail()).isEqualTo("crac@gmail.com");
+    }
+}
@@ -1,6 +1,12 @@
 package net.javaguides.springboot.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.javaguides.springboot.config.JacksonConfig;
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeStats;
+import net.javaguides.springboot.exception.ResourceNotFoundException;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.service.EmployeeService;
 import static org.hamcrest.CoreMatchers.is;
@@ -11,7 +17,9 @@ import static org.mockito.BDDMockito.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
@@ -19,11 +27,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@WebMvcTest
+@WebMvcTest(EmployeeController.class)
+@Import(JacksonConfig.class)
 class EmployeeControllerTests {
 
     @Autowired
@@ -92,6 +106,91 @@ class EmployeeControllerTests {
                         is(employees.size())));
     }
 
+    //Junit test for getAllEmployees with a Smile (binary JSON) Accept header
+    @DisplayName("Junit test for getAllEmployees as Smile")
+    @Test
+    void givenListOfEmployees_whenGetAllEmployeesAsSmile_thenReturnSmileEmployeesList() throws Exception {
+        //given - precondition or setup
+        List<Employee> employees = List.of(Employee.builder()
+                .firstName("Fany")
+                .lastName("Jupsy")
+                .email("ukl@gmail.com")
+                .build());
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        given(employeeService.getAllEmployees()).willReturn(employees);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").accept(smile));
+
+        //then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        Employee[] decoded = new ObjectMapper(new SmileFactory()).readValue(body, Employee[].class);
+        assertThat(decoded).hasSize(1);
+        assertThat(decoded[0].getEmail()).isEqualTo("ukl@gmail.com");
+    }
+
+    //Junit test for the batch lookup REST API
+    @DisplayName("Junit test for the batch lookup REST API")
+    @Test
+    void givenEmployeeIds_whenLookupEmployees_thenReturnEmployeesAndMissingIds() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Fany")
+                .lastName("Jupsy")
+                .email("ukl@gmail.com")
+                .build();
+        given(employeeService.getEmployeesByIds(List.of(1L, 2L)))
+                .willReturn(new EmployeeLookup(List.of(employee), List.of(2L)));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON).content("[1,2]"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.size()", is(1)))
+                .andExpect(jsonPath("$.employees[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.missingIds[0]", is(2)));
+    }
+
+    //Junit test for the batch lookup REST API with too many ids
+    @DisplayName("Junit test for the batch lookup REST API (too many ids)")
+    @Test
+    void givenTooManyEmployeeIds_whenLookupEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "[", "]"));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON).content(ids));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).getEmployeesByIds(anyCollection());
+    }
+
+    //Junit test for the batch lookup REST API with a null id
+    @DisplayName("Junit test for the batch lookup REST API (null id)")
+    @Test
+    void givenNullEmployeeId_whenLookupEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+        String ids = "[1,null,2]";
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON).content(ids));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).getEmployeesByIds(anyCollection());
+    }
+
     //positive scenario - valid employee id
     //Junit test for GET employee by id REST API
     @DisplayName("Junit test for GET employee by id REST API")
@@ -140,6 +239,172 @@ class EmployeeControllerTests {
                 .andExpect(status().isNotFound());
     }
 
+    //Junit test for GET employees with filter and sort
+    @DisplayName("Junit test for GET employees with filter and sort REST API")
+    @Test
+    void givenFilterAndSort_whenSearchEmployees_thenReturnPageWithCursor() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(7L).firstName("Fan").lastName("Jups").email("fjk@gmail.com").build();
+        given(employeeService.searchEmployees(any())).willReturn(new EmployeePage(List.of(employee), "next"));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("filter", "lastName:prefix:Ju,email:domain:gmail.com,id:gte:5")
+                .param("sort", "-lastName")
+                .param("limit", "1"));
+
+        //then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees[0].lastName", is("Jups")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    //Junit test for rejecting sorts on unindexed fields and oversized pages
+    @DisplayName("Junit test for GET employees with an unsortable field or too large a limit REST API")
+    @Test
+    void givenUnsortableFieldOrLargeLimit_whenSearchEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions unsortable = mockMvc.perform(get("/api/employees").param("sort", "firstName"));
+        ResultActions tooLarge = mockMvc.perform(get("/api/employees").param("filter", "id:gt:0").param("limit", "201"));
+
+        //then - verify the output
+        unsortable.andExpect(status().isBadRequest());
+        tooLarge.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    //Junit test for rejecting filter and sort combinations no index can serve
+    @DisplayName("Junit test for GET employees with an unindexed filter or sort combination REST API")
+    @Test
+    void givenUnindexedFilterOrSort_whenSearchEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions domainOnly = mockMvc.perform(get("/api/employees").param("filter", "email:domain:gmail.com"));
+        ResultActions prefixSortedByEmail = mockMvc.perform(get("/api/employees")
+                .param("filter", "lastName:prefix:Ju").param("sort", "email"));
+
+        //then - verify the output
+        domainOnly.andExpect(status().isBadRequest());
+        prefixSortedByEmail.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    //Junit test for rejecting paging and fields parameters that would be ignored
+    @DisplayName("Junit test for GET employees with limit, cursor or fields that do not apply REST API")
+    @Test
+    void givenPagingWithoutFilterOrFieldsWithSort_whenGetEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions limitOnly = mockMvc.perform(get("/api/employees").param("limit", "10"));
+        ResultActions cursorOnly = mockMvc.perform(get("/api/employees").param("cursor", "abc"));
+        ResultActions fieldsWithLimit = mockMvc.perform(get("/api/employees").param("fields", "id").param("limit", "10"));
+        ResultActions fieldsWithSort = mockMvc.perform(get("/api/employees").param("fields", "id").param("sort", "id"));
+
+        //then - verify the output
+        limitOnly.andExpect(status().isBadRequest());
+        cursorOnly.andExpect(status().isBadRequest());
+        fieldsWithLimit.andExpect(status().isBadRequest());
+        fieldsWithSort.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    //Junit test for rejecting ids together with fields instead of ignoring ids
+    @DisplayName("Junit test for GET employees by ids with fields REST API")
+    @Test
+    void givenIdsWithFields_whenGetEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "1").param("fields", "id"));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    //Junit test for rejecting ids together with sort instead of ignoring ids
+    @DisplayName("Junit test for GET employees by ids with sort REST API")
+    @Test
+    void givenIdsWithSort_whenGetEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "1").param("sort", "id"));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    //Junit test for rejecting ids together with filter instead of ignoring ids
+    @DisplayName("Junit test for GET employees by ids with filter REST API")
+    @Test
+    void givenIdsWithFilter_whenGetEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "1").param("filter", "id:gt:0"));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    //Junit test for GET employees with a sparse fieldset
+    @DisplayName("Junit test for GET all employees with fields REST API")
+    @Test
+    void givenFields_whenGetAllEmployees_thenReturnOnlyThoseFields() throws Exception {
+        //given - precondition or setup
+        given(employeeService.getAllEmployees(Set.of("id", "firstName")))
+                .willReturn(List.of(Map.of("id", 1L, "firstName", "Fan"), Map.of("id", 2L, "firstName", "Fany")));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "id, firstName"));
+
+        //then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].firstName", is("Fany")))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    //Junit test for GET employee by id with a sparse fieldset
+    @DisplayName("Junit test for GET employee by id with fields REST API")
+    @Test
+    void givenFields_whenGetEmployeeById_thenReturnOnlyThoseFields() throws Exception {
+        //given - precondition or setup
+        given(employeeService.getEmployeeById(1L, Set.of("firstName")))
+                .willReturn(Optional.of(Map.of("firstName", "Fan")));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L).param("fields", "firstName"));
+
+        //then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Fan")))
+                .andExpect(jsonPath("$.lastName").doesNotExist());
+    }
+
+    //Junit test for rejecting fields the API does not expose
+    @DisplayName("Junit test for GET employees with an unknown field REST API")
+    @Test
+    void givenUnknownField_whenGetAllEmployees_thenReturn400() throws Exception {
+        //given - precondition or setup
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "id,tenantId"));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
     //positive scenario - valid employee id
     //Junit test for update employee REST API
     @DisplayName("Junit test for update employee REST API")
@@ -223,4 +488,156 @@ class EmployeeControllerTests {
                 .andExpect(jsonPath("$", is("Employee deleted successfully")))
                 .andExpect(status().isOk());
     }
+    //Junit test for a conditional update with the current ETag
+    @DisplayName("Junit test for update employee REST API with a matching If-Match")
+    @Test
+    void givenMatchingIfMatch_whenUpdateEmployee_thenReturnUpdatedEmployeeAndETag() throws Exception {
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder().id(1L).firstName("Fany").lastName("Jupsy").email("ukl@gmail.com")
+                .version(3L).build();
+        Employee updatedEmployee = Employee.builder().firstName("Abba").lastName("Jupsio").email("baba@gmail.com").build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            employee.setVersion(employee.getVersion() + 1);
+            return employee;
+        });
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L).header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.firstName", is("Abba")));
+    }
+
+    //Junit test for a conditional update with a stale ETag
+    @DisplayName("Junit test for update employee REST API with a stale If-Match")
+    @Test
+    void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder().id(1L).firstName("Fany").lastName("Jupsy").email("ukl@gmail.com")
+                .version(4L).build();
+        Employee updatedEmployee = Employee.builder().firstName("Abba").lastName("Jupsio").email("baba@gmail.com").build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(savedEmployee));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L).header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then - verify the output
+        response.andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
+    //Junit test for an unconditional update losing the optimistic lock
+    @DisplayName("Junit test for update employee REST API losing a concurrent update")
+    @Test
+    void givenConcurrentUpdate_whenUpdateEmployeeWithoutIfMatch_thenReturn409() throws Exception {
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder().id(1L).firstName("Fany").lastName("Jupsy").email("ukl@gmail.com").build();
+        Employee updatedEmployee = Employee.builder().firstName("Abba").lastName("Jupsio").email("baba@gmail.com").build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then - verify the output
+        response.andExpect(status().isConflict());
+    }
+
+    //Junit test for an update to an email another active employee has
+    @DisplayName("Junit test for update employee REST API with a taken email")
+    @Test
+    void givenTakenEmail_whenUpdateEmployee_thenReturn409() throws Exception {
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder().id(2L).firstName("Fany").lastName("Jupsy").email("ukl@gmail.com").build();
+        Employee updatedEmployee = Employee.builder().firstName("Fany").lastName("Jupsy").email("fjk@gmail.com").build();
+        given(employeeService.getEmployeeById(2L)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new ResourceNotFoundException("Employee already exist with given email: fjk@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 2L)
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then - verify the output
+        response.andExpect(status().isConflict());
+    }
+
+    //Junit test for the stats REST API
+    @DisplayName("Junit test for GET employee stats REST API")
+    @Test
+    void givenCounters_whenGetEmployeeStats_thenReturnTotalsAndDomains() throws Exception {
+        //given - precondition or setup
+        given(employeeService.getEmployeeStats()).willReturn(new EmployeeStats(3, Map.of("gmail.com", 2L, "acme.com", 1L), null));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/stats"));
+
+        //then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.byDomain['gmail.com']", is(2)));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    //Junit test for the upsert by email REST API
+    @DisplayName("Junit test for PUT employee by email REST API")
+    @Test
+    void givenNewThenKnownEmail_whenUpsertEmployee_thenReturn201Then204() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Fan").lastName("Jups").build();
+        given(employeeService.upsertByEmail(any(Employee.class))).willReturn(true, false);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions created = mockMvc.perform(put("/api/employees/by-email/{email}", "fjk@gmail.com")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(employee)));
+        ResultActions updated = mockMvc.perform(put("/api/employees/by-email/{email}", "fjk@gmail.com")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        created.andExpect(status().isCreated());
+        updated.andExpect(status().isNoContent());
+        verify(employeeService, times(2)).upsertByEmail(argThat((Employee upserted) -> "fjk@gmail.com".equals(upserted.getEmail())));
+    }
+
+    //Junit test for rejecting an upsert whose body names another email
+    @DisplayName("Junit test for PUT employee by email REST API with a mismatched body")
+    @Test
+    void givenBodyEmailNotMatchingPath_whenUpsertEmployee_thenReturn400() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Fan").lastName("Jups").email("other@gmail.com").build();
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/by-email/{email}", "fjk@gmail.com")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).upsertByEmail(any(Employee.class));
+    }
+
+    //Junit test for the batch upsert REST API
+    @DisplayName("Junit test for PUT employees by email REST API")
+    @Test
+    void givenEmployees_whenUpsertEmployees_thenReturn204() throws Exception {
+        //given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("Fan").lastName("Jups").email("fjk@gmail.com").build(),
+                Employee.builder().firstName("Ann").lastName("Lee").email("ann@acme.com").build());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/by-email")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(employees)));
+
+        //then - verify the output
+        response.andExpect(status().isNoContent());
+        verify(employeeService).upsertByEmail(argThat((List<Employee> upserted) -> upserted.size() == 2));
+    }
 }
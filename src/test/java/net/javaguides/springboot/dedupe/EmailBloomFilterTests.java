@@ -0,0 +1,109 @@
+package net.javaguides.springboot.dedupe;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-email-filter;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "email-filter.rebuild-interval=PT1H"
+})
+@ActiveProfiles("h2")
+class EmailBloomFilterTests {
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmailBloomFilter emailFilter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //Junit test for saving new emails without the duplicate query and rejecting known ones
+    @DisplayName("Junit test for saving new emails without the duplicate query and rejecting known ones")
+    @Test
+    void givenBuiltFilter_whenSaveEmployees_thenOnlyPossibleDuplicatesAreQueried() {
+        //given - precondition or setup
+        jdbcTemplate.update("insert into employees (first_name, last_name, email, tenant_id, status, version) "
+                + "values ('Out', 'OfBand', 'outofband@gmail.com', 'default', 'ACTIVE', 0)");
+        emailFilter.rebuild();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 20; i++) {
+            employeeService.saveEmployee(Employee.builder()
+                    .firstName("New").lastName("Hire" + i).email("new.hire" + i + "@gmail.com").build());
+        }
+        long queriesForNewEmails = statistics.getQueryExecutionCount();
+
+        //then - verify the output
+        assertThat(emailFilter.isReady()).isTrue();
+        assertThat(queriesForNewEmails).isZero();
+        assertThatThrownBy(() -> employeeService.saveEmployee(Employee.builder()
+                .firstName("Out").lastName("OfBand").email("outofband@gmail.com").build()))
+                .hasMessageContaining("already exist");
+        assertThatThrownBy(() -> employeeService.saveEmployee(Employee.builder()
+                .firstName("New").lastName("Hire").email("new.hire3@gmail.com").build()))
+                .hasMessageContaining("already exist");
+        assertThat(meterRegistry.get("employee.email.filter.checks").tag("result", "absent").counter().count())
+                .isGreaterThanOrEqualTo(20);
+        assertThat(meterRegistry.get("employee.email.filter.memory").gauge().value()).isPositive();
+    }
+
+    //Junit test for a duplicate the filter cannot know about
+    @DisplayName("Junit test for a duplicate created by another replica being rejected by the unique key")
+    @Test
+    void givenEmailCreatedBehindTheFilter_whenSaveEmployee_thenDuplicateError() {
+        //given - precondition or setup
+        emailFilter.rebuild();
+        jdbcTemplate.update("insert into employees (first_name, last_name, email, tenant_id, status, version) "
+                + "values ('Other', 'Replica', 'replica@gmail.com', 'default', 'ACTIVE', 0)");
+
+        //when - action or the behaviour that we are going to test
+        boolean absentForTheFilter = emailFilter.definitelyAbsent("replica@gmail.com");
+
+        //then - verify the output
+        assertThat(absentForTheFilter).isTrue();
+        assertThatThrownBy(() -> employeeService.saveEmployee(Employee.builder()
+                .firstName("Other").lastName("Replica").email("replica@gmail.com").build()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Employee already exist with given email: replica@gmail.com");
+    }
+
+    //Junit test for an update to an email another active employee has
+    @DisplayName("Junit test for an email change onto another active employee being rejected by the unique key")
+    @Test
+    void givenTakenEmail_whenUpdateEmployee_thenDuplicateError() {
+        //given - precondition or setup
+        employeeService.saveEmployee(Employee.builder().firstName("Taken").lastName("One").email("taken@gmail.com").build());
+        Employee other = employeeService.saveEmployee(
+                Employee.builder().firstName("Other").lastName("One").email("other@gmail.com").build());
+
+        //when - action or the behaviour that we are going to test
+        other.setEmail("taken@gmail.com");
+
+        //then - verify the output
+        assertThatThrownBy(() -> employeeService.updateEmployee(other))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Employee already exist with given email: taken@gmail.com");
+        assertThatThrownBy(() -> employeeService.updateEmployee(other.getId(), e -> e.setEmail("taken@gmail.com")))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package net.javaguides.springboot.dedupe;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableBloomFilterTests {
+
+    //Junit test for no false negatives
+    @DisplayName("Junit test for no false negatives")
+    @Test
+    void givenAddedKeys_whenMightContain_thenAllAreFound() {
+        //given - precondition or setup
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        IntStream.range(0, 5_000).forEach(i -> filter.add("user" + i + "@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        long found = IntStream.range(0, 5_000).filter(i -> filter.mightContain("user" + i + "@gmail.com")).count();
+
+        //then - verify the output
+        assertThat(found).isEqualTo(5_000);
+    }
+
+    //Junit test for the false positive rate staying near the target as the filter grows
+    @DisplayName("Junit test for the false positive rate staying near the target as the filter grows")
+    @Test
+    void givenFilterPastInitialCapacity_whenProbingUnknownKeys_thenFalsePositiveRateIsBounded() {
+        //given - precondition or setup
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@yahoo.com"))
+                .count();
+
+        //then - verify the output
+        assertThat(filter.stageCount()).isGreaterThan(1);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.01);
+        assertThat(filter.expectedFpp()).isLessThan(0.01);
+    }
+}
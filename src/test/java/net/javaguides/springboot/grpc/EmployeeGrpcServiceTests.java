@@ -0,0 +1,286 @@
+package net.javaguides.springboot.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.grpc.proto.BatchGetEmployeesRequest;
+import net.javaguides.springboot.grpc.proto.BatchGetEmployeesResponse;
+import net.javaguides.springboot.grpc.proto.CreateEmployeeRequest;
+import net.javaguides.springboot.grpc.proto.EmployeeMessage;
+import net.javaguides.springboot.grpc.proto.EmployeeServiceGrpc;
+import net.javaguides.springboot.grpc.proto.GetEmployeeRequest;
+import net.javaguides.springboot.grpc.proto.ListEmployeesRequest;
+import net.javaguides.springboot.grpc.proto.UpdateEmployeeRequest;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeQuery;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeGrpcServiceTests {
+    @Mock
+    private EmployeeService employeeService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub stub;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EmployeeGrpcService(employeeService))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = EmployeeServiceGrpc.newBlockingStub(channel);
+
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Fan")
+                .lastName("Jups")
+                .email("fjk@gmail.com")
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    //Junit test for GetEmployee rpc
+    @DisplayName("Junit test for GetEmployee rpc")
+    @Test
+    void givenEmployeeId_whenGetEmployee_thenReturnEmployeeMessage() {
+        //given - precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        EmployeeMessage message = stub.getEmployee(GetEmployeeRequest.newBuilder().setId(1L).build());
+
+        //then - verify the output
+        assertThat(message.getId()).isEqualTo(1L);
+        assertThat(message.getEmail()).isEqualTo("fjk@gmail.com");
+    }
+
+    //Junit test for GetEmployee rpc with an unknown id
+    @DisplayName("Junit test for GetEmployee rpc (negative scenario)")
+    @Test
+    void givenInvalidEmployeeId_whenGetEmployee_thenThrowsNotFound() {
+        //given - precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.empty());
+
+        //when - action or the behaviour that we are going to test
+        StatusRuntimeException exception = Assertions.assertThrows(StatusRuntimeException.class,
+                () -> stub.getEmployee(GetEmployeeRequest.newBuilder().setId(1L).build()));
+
+        //then - verify the output
+        assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+    }
+
+    //Junit test for BatchGetEmployees rpc
+    @DisplayName("Junit test for BatchGetEmployees rpc")
+    @Test
+    void givenEmployeeIds_whenBatchGetEmployees_thenReturnFoundAndMissing() {
+        //given - precondition or setup
+        given(employeeService.getEmployeesByIds(List.of(1L, 2L)))
+                .willReturn(new EmployeeLookup(List.of(employee), List.of(2L)));
+
+        //when - action or the behaviour that we are going to test
+        BatchGetEmployeesResponse response = stub.batchGetEmployees(BatchGetEmployeesRequest.newBuilder()
+                .addIds(1L)
+                .addIds(2L)
+                .build());
+
+        //then - verify the output
+        assertThat(response.getEmployeesList()).extracting(EmployeeMessage::getId).containsExactly(1L);
+        assertThat(response.getMissingIdsList()).containsExactly(2L);
+    }
+
+    //Junit test for BatchGetEmployees rpc with too many ids
+    @DisplayName("Junit test for BatchGetEmployees rpc (too many ids)")
+    @Test
+    void givenTooManyEmployeeIds_whenBatchGetEmployees_thenThrowsInvalidArgument() {
+        //given - precondition or setup
+        BatchGetEmployeesRequest request = BatchGetEmployeesRequest.newBuilder()
+                .addAllIds(LongStream.rangeClosed(1, EmployeeService.MAX_LOOKUP_IDS + 1).boxed().toList())
+                .build();
+
+        //when - action or the behaviour that we are going to test
+        StatusRuntimeException exception = Assertions.assertThrows(StatusRuntimeException.class,
+                () -> stub.batchGetEmployees(request));
+
+        //then - verify the output
+        assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+        verify(employeeService, never()).getEmployeesByIds(anyCollection());
+    }
+
+    //Junit test for CreateEmployee rpc with an email that is already taken
+    @DisplayName("Junit test for CreateEmployee rpc which throws exception")
+    @Test
+    void givenExistingEmail_whenCreateEmployee_thenThrowsAlreadyExists() {
+        //given - precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new ResourceNotFoundException("Employee already exist with given email: fjk@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        StatusRuntimeException exception = Assertions.assertThrows(StatusRuntimeException.class,
+                () -> stub.createEmployee(CreateEmployeeRequest.newBuilder()
+                        .setFirstName("Fan")
+                        .setLastName("Jups")
+                        .setEmail("fjk@gmail.com")
+                        .build()));
+
+        //then - verify the output
+        assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.ALREADY_EXISTS);
+    }
+
+    //Junit test for UpdateEmployee rpc
+    @DisplayName("Junit test for UpdateEmployee rpc")
+    @Test
+    void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdatedEmployeeMessage() {
+        //given - precondition or setup
+        given(employeeService.updateEmployee(eq(1L), any()))
+                .willAnswer(invocation -> {
+                    invocation.<Consumer<Employee>>getArgument(1).accept(employee);
+                    return Optional.of(employee);
+                });
+
+        //when - action or the behaviour that we are going to test
+        EmployeeMessage message = stub.updateEmployee(UpdateEmployeeRequest.newBuilder()
+                .setId(1L)
+                .setFirstName("Abba")
+                .setLastName("Jupsio")
+                .setEmail("baba@gmail.com")
+                .build());
+
+        //then - verify the output
+        assertThat(message.getFirstName()).isEqualTo("Abba");
+        assertThat(message.getEmail()).isEqualTo("baba@gmail.com");
+    }
+
+    //Junit test for UpdateEmployee rpc with an email that is already taken
+    @DisplayName("Junit test for UpdateEmployee rpc which throws exception")
+    @Test
+    void givenTakenEmail_whenUpdateEmployee_thenThrowsAlreadyExists() {
+        //given - precondition or setup
+        given(employeeService.updateEmployee(eq(1L), any()))
+                .willThrow(new ResourceNotFoundException("Employee already exist with given email: baba@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        StatusRuntimeException exception = Assertions.assertThrows(StatusRuntimeException.class,
+                () -> stub.updateEmployee(UpdateEmployeeRequest.newBuilder()
+                        .setId(1L)
+                        .setFirstName("Abba")
+                        .setLastName("Jupsio")
+                        .setEmail("baba@gmail.com")
+                        .build()));
+
+        //then - verify the output
+        assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.ALREADY_EXISTS);
+    }
+
+    //Junit test for the server-streaming ListEmployees rpc
+    @DisplayName("Junit test for ListEmployees rpc")
+    @Test
+    void givenEmployeesList_whenListEmployees_thenStreamEveryEmployee() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Fany")
+                .lastName("Jupsy")
+                .email("ukl@gmail.com")
+                .build();
+        String cursor = EmployeeQuery.parse(List.of(), null, 1, null).cursorAfter(employee);
+        given(employeeService.searchEmployees(any()))
+                .willReturn(new EmployeePage(List.of(employee), cursor), new EmployeePage(List.of(employee1), null));
+
+        //when - action or the behaviour that we are going to test
+        List<EmployeeMessage> messages = new ArrayList<>();
+        stub.listEmployees(ListEmployeesRequest.getDefaultInstance()).forEachRemaining(messages::add);
+
+        //then - verify the output
+        assertThat(messages).extracting(EmployeeMessage::getId).containsExactly(1L, 2L);
+        verify(employeeService, times(2)).searchEmployees(any());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    //Junit test for ListEmployees reading pages only as fast as the client takes them
+    @DisplayName("Junit test for ListEmployees rpc with a slow client that cancels")
+    @Test
+    void givenSlowClient_whenListEmployees_thenNoMorePagesAreReadThanSent() throws Exception {
+        //given - precondition or setup
+        String cursor = EmployeeQuery.parse(List.of(), null, 1, null).cursorAfter(employee);
+        given(employeeService.searchEmployees(any())).willReturn(new EmployeePage(List.of(employee, employee), cursor));
+        List<EmployeeMessage> messages = new ArrayList<>();
+        CountDownLatch closed = new CountDownLatch(1);
+
+        //when - action or the behaviour that we are going to test
+        EmployeeServiceGrpc.newStub(channel).listEmployees(ListEmployeesRequest.getDefaultInstance(),
+                new ClientResponseObserver<ListEmployeesRequest, EmployeeMessage>() {
+                    private ClientCallStreamObserver<ListEmployeesRequest> call;
+
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ListEmployeesRequest> requestStream) {
+                        call = requestStream;
+                        requestStream.disableAutoRequestWithInitial(1);
+                    }
+
+                    @Override
+                    public void onNext(EmployeeMessage message) {
+                        messages.add(message);
+                        call.cancel("read enough", null);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        closed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        closed.countDown();
+                    }
+                });
+
+        //then - verify the output
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(messages).hasSize(1);
+        verify(employeeService, times(1)).searchEmployees(any());
+    }
+}
@@ -0,0 +1,69 @@
+package net.javaguides.springboot.hotkeys;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHittersTests {
+
+    //Junit test for finding the hot keys in skewed traffic with fixed memory
+    @DisplayName("Junit test for the top-K of a sketch over skewed traffic")
+    @Test
+    void givenSkewedReads_whenTop_thenHottestKeysAreFoundWithBoundedError() {
+        //given - precondition or setup
+        CountMinSketch sketch = new CountMinSketch(4, 4096);
+        HeavyHitters<Long> heavyHitters = new HeavyHitters<>(10);
+        Random random = new Random(42);
+
+        //when - action or the behaviour that we are going to test
+        int reads = 0;
+        for (int round = 0; round < 1_000; round++) {
+            for (long hot = 1; hot <= 5; hot++) {
+                for (int i = 0; i < hot * 10; i++) {
+                    heavyHitters.offer(hot, sketch.add(hot));
+                    reads++;
+                }
+            }
+            for (int i = 0; i < 100; i++) {
+                long cold = 1_000 + random.nextInt(1_000_000);
+                heavyHitters.offer(cold, sketch.add(cold));
+                reads++;
+            }
+        }
+
+        //then - verify the output
+        List<Map.Entry<Long, Long>> top = heavyHitters.top(5);
+        assertThat(top).extracting(Map.Entry::getKey).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(sketch.estimate(5)).isBetween(50_000L, 50_000L + reads * 3L / 4096);
+    }
+
+    //Junit test for old traffic fading out
+    @DisplayName("Junit test for decay halving counts so a key that went cold drops out")
+    @Test
+    void givenKeyThatWentCold_whenDecayed_thenNewHotKeyOvertakesIt() {
+        //given - precondition or setup
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        HeavyHitters<Long> heavyHitters = new HeavyHitters<>(1);
+        for (int i = 0; i < 1_000; i++) {
+            heavyHitters.offer(1L, sketch.add(1));
+        }
+
+        //when - action or the behaviour that we are going to test
+        for (int window = 0; window < 4; window++) {
+            sketch.decay();
+            heavyHitters.decay();
+            for (int i = 0; i < 200; i++) {
+                heavyHitters.offer(2L, sketch.add(2));
+            }
+        }
+
+        //then - verify the output
+        assertThat(sketch.estimate(1)).isEqualTo(1_000 >>> 4);
+        assertThat(heavyHitters.top(1)).extracting(Map.Entry::getKey).containsExactly(2L);
+    }
+}
@@ -0,0 +1,58 @@
+package net.javaguides.springboot.hotkeys;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-hotkeys;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "hot-keys.decay-window=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class HotKeysEndpointTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private HotKeysEndpoint endpoint;
+
+    //Junit test for the hotkeys actuator endpoint
+    @DisplayName("Junit test for the hotkeys endpoint reporting hot employees and endpoint counts")
+    @Test
+    void givenRepeatedReads_whenGetHotKeys_thenHottestEmployeeAndEndpointAreReported() throws Exception {
+        //given - precondition or setup
+        Employee hot = employeeRepository.save(
+                Employee.builder().firstName("Fan").lastName("Jups").email("hot@gmail.com").build());
+        Employee cold = employeeRepository.save(
+                Employee.builder().firstName("Fan").lastName("Jups").email("cold@gmail.com").build());
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/employees/{id}", hot.getId())).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/employees/{id}", cold.getId())).andExpect(status().isOk());
+
+        //then - verify the output
+        // the actuator is on the management port, which a mock environment does not start
+        HotKeyTracker.Report report = endpoint.hotKeys(null);
+        assertThat(report.tenantId()).isEqualTo(TenantContext.DEFAULT_TENANT);
+        assertThat(report.decayWindow()).isEqualTo("PT1H");
+        assertThat(report.employees().get(0).id()).isEqualTo(hot.getId());
+        assertThat(report.employees().get(0).reads()).isGreaterThanOrEqualTo(5);
+        assertThat(report.endpoints().get("getEmployeeById").currentWindow()).isEqualTo(6);
+        assertThat(endpoint.hotKeys("other").employees()).isEmpty();
+    }
+}
@@ -0,0 +1,158 @@
+package net.javaguides.springboot.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.EmployeeImportJob;
+import net.javaguides.springboot.model.ImportStatus;
+import net.javaguides.springboot.repository.EmployeeImportJobRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeImportService;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-import;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "employee-import.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class EmployeeImportTests {
+    @TempDir
+    static Path importDirectory;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EmployeeImportService employeeImportService;
+    @Autowired
+    private EmployeeImportJobRepository jobRepository;
+    @Autowired
+    private EmployeeImporter importer;
+
+    @DynamicPropertySource
+    static void importProperties(DynamicPropertyRegistry registry) {
+        registry.add("employee-import.directory", importDirectory::toString);
+    }
+
+    //Junit test for importing a CSV and reporting the rows it rejected
+    @DisplayName("Junit test for importing a CSV and reporting the rows it rejected")
+    @Test
+    void givenCsvWithBadAndDuplicateRows_whenImport_thenValidRowsInsertedAndOthersReported() throws Exception {
+        //given - precondition or setup
+        employeeService.saveEmployee(Employee.builder().firstName("Old").lastName("Timer").email("old@acme.com").build());
+        String csv = "Email,first_name,Last Name\r\n"
+                + "ann@acme.com,Ann,Lee\r\n"
+                + "not-an-email,Bob,Ray\r\n"
+                + "\r\n"
+                + "\"carl,jr@acme.com\",Carl,\"O\"\"Neil\"\r\n"
+                + "ann@acme.com,Ann,Again\r\n"
+                + "old@acme.com,Old,Timer\r\n"
+                + "dee@acme.com,Dee\r\n"
+                + "eve@acme.com,Eve,Stone\r\n";
+        MockMultipartFile file = new MockMultipartFile("file", "q3.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        //when - action or the behaviour that we are going to test
+        String location = mockMvc.perform(multipart("/api/employees/imports").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+        JsonNode job = awaitFinished(location);
+        String errors = mockMvc.perform(get(location + "/errors")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //then - verify the output
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("rowsProcessed").asLong()).isEqualTo(8);
+        assertThat(job.get("imported").asLong()).isEqualTo(3);
+        assertThat(job.get("duplicates").asLong()).isEqualTo(2);
+        assertThat(job.get("invalid").asLong()).isEqualTo(2);
+        assertThat(employeeRepository.findByEmail("carl,jr@acme.com")).get()
+                .extracting(Employee::getLastName).isEqualTo("O\"Neil");
+        assertThat(errors.lines()).containsExactly(
+                "row,email,error",
+                "2,not-an-email,invalid email",
+                "5,ann@acme.com,employee with this email already exists",
+                "6,old@acme.com,employee with this email already exists",
+                "7,,\"expected 3 columns, found 2\"");
+    }
+
+    //Junit test for resuming an import from its checkpoint
+    @DisplayName("Junit test for resuming an import from its checkpoint")
+    @Test
+    void givenFailedImportWithCheckpoint_whenResume_thenOnlyRemainingRowsImported() throws Exception {
+        //given - precondition or setup
+        EmployeeImportJob job = jobRepository.save(EmployeeImportJob.builder()
+                .fileName("resume.csv")
+                .status(ImportStatus.FAILED)
+                .rowsProcessed(2)
+                .imported(2)
+                .errorReportBytes("row,email,error\n".length())
+                .createdAt(Instant.now())
+                .build());
+        Path upload = importer.uploadOf(TenantContext.DEFAULT_TENANT, job.getId());
+        Files.createDirectories(upload.getParent());
+        Files.writeString(upload, "firstName,lastName,email\n"
+                + "Already,Imported,first@resume.com\n"
+                + "Already,Imported,second@resume.com\n"
+                + "Not,Yet,third@resume.com\n");
+        // written by the failed run after its last checkpoint
+        Files.writeString(importer.errorReportOf(TenantContext.DEFAULT_TENANT, job.getId()),
+                "row,email,error\n3,third@resume.com,uncommitted\n");
+
+        //when - action or the behaviour that we are going to test
+        employeeImportService.resumeImport(job.getId());
+        JsonNode resumed = awaitFinished("/api/employees/imports/" + job.getId());
+
+        //then - verify the output
+        assertThat(resumed.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(resumed.get("imported").asLong()).isEqualTo(3);
+        assertThat(employeeRepository.findByEmail("third@resume.com")).isPresent();
+        assertThat(employeeRepository.findByEmail("first@resume.com")).isEmpty();
+        assertThat(employeeImportService.getErrorReport(job.getId())).get()
+                .satisfies(report -> assertThat(Files.readAllLines(report)).isEqualTo(List.of("row,email,error")));
+    }
+
+    private JsonNode awaitFinished(String location) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get(location)).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String state = job.get("status").asText();
+            if (!state.equals("QUEUED") && !state.equals("RUNNING")) {
+                return job;
+            }
+            assertThat(System.nanoTime()).as("import did not finish in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -1,27 +1,79 @@
 package net.javaguides.springboot.integration.testcontainers;
 
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.MySQLContainer;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// One MySQL container per JVM, shared by every IT class. With testcontainers.reuse.enable=true in
+// ~/.testcontainers.properties the same container also survives between builds. Without Docker the
+// ITs run against H2 in MySQL mode instead of being skipped.
+//
+// The ITs commit real rows and reset the shared database and in-memory state before each test, so
+// the classes sharing it must not run concurrently with each other (see junit-platform.properties);
+// the lock is inherited by every subclass.
+@ResourceLock(AbstractContainerBaseTest.EMPLOYEES_DB)
 public abstract class AbstractContainerBaseTest {
+    public static final String EMPLOYEES_DB = "employees-db";
+    private static final String H2_URL = "jdbc:h2:mem:ems-it;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
 
-    static final MySQLContainer MY_SQL_CONTAINER;
-
-    static {
-        MY_SQL_CONTAINER = new MySQLContainer("mysql:8.0.33")
-                .withUsername("username")
-                .withPassword("pwd")
-                .withDatabaseName("ems");
-        MY_SQL_CONTAINER.start();
-    }
+    static final MySQLContainer<?> MY_SQL_CONTAINER = new MySQLContainer<>("mysql:8.0.33")
+            .withUsername("username")
+            .withPassword("pwd")
+            .withDatabaseName("ems")
+            .withReuse(true);
 
     @DynamicPropertySource
     public static void dynamicPropertySource(DynamicPropertyRegistry registry){
+        if (!DockerClientFactory.instance().isDockerAvailable()) {
+            registry.add("spring.datasource.url", () -> H2_URL);
+            registry.add("spring.datasource.username", () -> "sa");
+            registry.add("spring.datasource.password", () -> "");
+            return;
+        }
+        startContainer();
         registry.add("spring.datasource.url",MY_SQL_CONTAINER::getJdbcUrl);
         registry.add("spring.datasource.username",MY_SQL_CONTAINER::getUsername);
         registry.add("spring.datasource.password",MY_SQL_CONTAINER::getPassword);
     }
 
-}
+    private static synchronized void startContainer() {
+        if (MY_SQL_CONTAINER.isRunning()) {
+            return;
+        }
+        MY_SQL_CONTAINER.start();
+        truncateTables();
+    }
 
+    // each test clears the tables it uses; this clears whatever a reused container kept from an earlier build
+    private static void truncateTables() {
+        try (Connection connection = DriverManager.getConnection(MY_SQL_CONTAINER.getJdbcUrl(),
+                MY_SQL_CONTAINER.getUsername(), MY_SQL_CONTAINER.getPassword());
+             Statement statement = connection.createStatement()) {
+            List<String> tables = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("select table_name from information_schema.tables "
+                    + "where table_schema = database() and table_type = 'BASE TABLE'")) {
+                while (resultSet.next()) {
+                    tables.add(resultSet.getString(1));
+                }
+            }
+            statement.execute("set foreign_key_checks = 0");
+            for (String table : tables) {
+                statement.execute("truncate table `" + table + "`");
+            }
+            statement.execute("set foreign_key_checks = 1");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not truncate tables of the reused MySQL container", e);
+        }
+    }
+
+}
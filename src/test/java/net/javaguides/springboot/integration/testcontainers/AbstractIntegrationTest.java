@@ -0,0 +1,57 @@
+package net.javaguides.springboot.integration.testcontainers;
+
+import net.javaguides.springboot.cache.EmployeeCache;
+import net.javaguides.springboot.cache.InMemorySharedCache;
+import net.javaguides.springboot.cache.SharedCache;
+import net.javaguides.springboot.concurrency.AdaptiveConcurrencyLimiter;
+import net.javaguides.springboot.dedupe.EmailBloomFilter;
+import net.javaguides.springboot.querycount.QueryCountExtension;
+import net.javaguides.springboot.ratelimit.RateLimitFilter;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Every class extending this gets the same cached application context. There is no test transaction,
+// so a request commits and runs exactly the statements it runs in production; MockMvc runs it on the
+// test thread, where they count towards the test's QueryCountExtension assertions. Each test starts
+// from empty tables and reset in-memory state instead.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(QueryCountExtension.class)
+public abstract class AbstractIntegrationTest extends AbstractContainerBaseTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EmployeeCache employeeCache;
+    @Autowired
+    private SharedCache sharedCache;
+    @Autowired
+    private EmailBloomFilter emailFilter;
+    @Autowired
+    private EmployeeStatsCounters statsCounters;
+    @Autowired
+    private ObjectProvider<FilterRegistrationBean<RateLimitFilter>> rateLimitFilter;
+    @Autowired
+    private ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+
+    @BeforeEach
+    public void resetState() {
+        jdbcTemplate.update("delete from employees_archive");
+        jdbcTemplate.update("delete from employees");
+        employeeCache.clearNear();
+        if (sharedCache instanceof InMemorySharedCache inMemory) {
+            inMemory.clear();
+        }
+        emailFilter.rebuild();
+        statsCounters.reconcile();
+        rateLimitFilter.ifAvailable(registration -> registration.getFilter().reset());
+        concurrencyLimiter.ifAvailable(AdaptiveConcurrencyLimiter::reset);
+        QueryCountExtension.reset();
+    }
+}
@@ -2,13 +2,11 @@ package net.javaguides.springboot.integration.testcontainers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.querycount.QueryCountExtension;
 import net.javaguides.springboot.repository.EmployeeRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -16,6 +14,10 @@ import org.springframework.test.web.servlet.ResultActions;
 import java.util.ArrayList;
 import java.util.List;
 
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertInsertCount;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertSelectCount;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertStatementCount;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertUpdateCount;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -25,9 +27,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@AutoConfigureMockMvc
-class EmployeeControllerIT extends AbstractContainerBaseTest{
+class EmployeeControllerIT extends AbstractIntegrationTest {
 
     @Autowired
     MockMvc mockMvc;
@@ -36,11 +36,6 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
     @Autowired
     ObjectMapper objectMapper;
 
-    @BeforeEach
-    void setUp(){
-        employeeRepository.deleteAll();
-    }
-
     //Junit test for createEmployee
     @DisplayName("Junit test for createEmployee")
     @Test
@@ -66,6 +61,9 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
                         is(employee.getLastName())))
                 .andExpect(jsonPath("$.email",
                         is(employee.getEmail())));
+        // the email filter starts empty, so the duplicate check needs no findByEmail
+        assertInsertCount(1);
+        assertStatementCount(1);
     }
 
     //Junit test for getAllEmployees
@@ -87,6 +85,7 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
                 .build());
 
         employeeRepository.saveAll(employees);
+        QueryCountExtension.reset();
 
         //when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -95,6 +94,8 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
         response.andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size()", is(employees.size())));
+        assertSelectCount(1);
+        assertStatementCount(1);
     }
 
     //positive scenario - valid employee id
@@ -139,6 +140,7 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
         //then - verify the output
         response.andDo(print())
                 .andExpect(status().isNotFound());
+        assertStatementCount(1);
     }
 
     //positive scenario - valid employee id
@@ -154,6 +156,7 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
                 .build();
 
         employeeRepository.save(savedEmployee);
+        QueryCountExtension.reset();
 
         Employee updatedEmployee = Employee.builder()
                 .firstName("Abba")
@@ -173,6 +176,10 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
                         is(updatedEmployee.getLastName())))
                 .andExpect(jsonPath("$.email",
                         is(updatedEmployee.getEmail())));
+        // the employee (not cached yet), the email lookup for the stats and cache, then the write itself
+        assertSelectCount(2);
+        assertUpdateCount(1);
+        assertStatementCount(3);
     }
 
 
@@ -211,6 +218,7 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
                 .build();
 
         employeeRepository.save(savedEmployee);
+        QueryCountExtension.reset();
 
         //when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
@@ -219,6 +227,10 @@ class EmployeeControllerIT extends AbstractContainerBaseTest{
         response.andDo(print())
                 .andExpect(jsonPath("$", is("Employee deleted successfully")))
                 .andExpect(status().isOk());
+        // the email lookup for the stats and cache, then the write itself
+        assertSelectCount(1);
+        assertUpdateCount(1);
+        assertStatementCount(2);
     }
 
 }
@@ -0,0 +1,66 @@
+package net.javaguides.springboot.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.concurrency.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf -Dtest=ConcurrencyLimitLoadTest
+// far more clients than pool connections: the limiter sheds the excess with 503s instead of
+// letting callers queue on Hikari until its connection timeout fires
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-overload;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=250",
+        "spring.jpa.open-in-view=false",
+        "server.tomcat.threads.max=256"
+})
+@ActiveProfiles("h2")
+class ConcurrencyLimitLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //Load test for the adaptive concurrency limit under overload
+    @DisplayName("Load test for the adaptive concurrency limit under overload")
+    @Test
+    void givenSmallPool_whenOverloaded_thenLimitAdaptsAndPoolTimeoutsStayRare() throws Exception {
+        //given - precondition or setup
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        int concurrency = Integer.getInteger("load.concurrency", 192);
+        LoadTestDriver driver = new LoadTestDriver("http://localhost:" + port);
+        driver.seed(1000);
+
+        //when - action or the behaviour that we are going to test
+        LoadReport report = driver.run("overload", LoadTestDriver.READ_HEAVY_MIX, duration, concurrency);
+        report.write(Path.of("target", "load-report"));
+
+        //then - verify the output
+        double rejected = meterRegistry.get("concurrency.limit.rejected").counter().count();
+        double poolTimeouts = meterRegistry.get("hikaricp.connections.timeout").counter().count();
+        logger.info("{}", report.toJson());
+        logger.info("limit={} rejected={} poolTimeouts={}", limiter.getLimit(), (long) rejected, (long) poolTimeouts);
+        assertThat(report.requests()).isPositive();
+        assertThat(limiter.getLimit()).isLessThan(200);
+        // without the limiter the same run ends in well over 10% Hikari timeouts
+        assertThat(poolTimeouts).isLessThan(report.requests() * 0.01);
+    }
+}
@@ -0,0 +1,48 @@
+package net.javaguides.springboot.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn test -Pperf [-Dload.duration=PT5M -Dload.concurrency=64]
+// reports land in target/load-report/<scenario>.json and .html
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:ems-load;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("h2")
+class EmployeeApiLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeApiLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    //Load test for the read-heavy mix over all EmployeeController endpoints
+    @DisplayName("Load test for the read-heavy mix over all EmployeeController endpoints")
+    @Test
+    void givenSeededEmployees_whenReadHeavyMix_thenReportThroughputAndLatencies() throws Exception {
+        //given - precondition or setup
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+        LoadTestDriver driver = new LoadTestDriver("http://localhost:" + port);
+        driver.seed(1000);
+
+        //when - action or the behaviour that we are going to test
+        LoadReport report = driver.run("read-heavy", LoadTestDriver.READ_HEAVY_MIX, duration, concurrency);
+        report.write(Path.of("target", "load-report"));
+
+        //then - verify the output
+        logger.info("{}", report.toJson());
+        assertThat(report.requests()).isPositive();
+        assertThat(report.errorRate()).isLessThan(0.001);
+    }
+}
@@ -0,0 +1,79 @@
+package net.javaguides.springboot.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record LoadReport(String scenario, int concurrency, double durationSeconds, long requests,
+                         double throughputPerSecond, double errorRate, Map<String, OperationReport> operations) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public record OperationReport(long requests, long errors, double throughputPerSecond, double errorRate,
+                                  long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+    }
+
+    static LoadReport of(String scenario, int concurrency, Duration elapsed,
+                         Map<LoadTestDriver.Operation, LoadTestDriver.OperationStats> stats) {
+        double seconds = elapsed.toNanos() / 1e9;
+        long requests = 0;
+        long errors = 0;
+        Map<String, OperationReport> operations = new LinkedHashMap<>();
+        for (Map.Entry<LoadTestDriver.Operation, LoadTestDriver.OperationStats> entry : stats.entrySet()) {
+            LatencyHistogram latencies = entry.getValue().latencies;
+            long operationRequests = latencies.count();
+            long operationErrors = entry.getValue().errors.sum();
+            requests += operationRequests;
+            errors += operationErrors;
+            operations.put(entry.getKey().name(), new OperationReport(operationRequests, operationErrors,
+                    operationRequests / seconds, ratio(operationErrors, operationRequests),
+                    latencies.percentile(50), latencies.percentile(99), latencies.percentile(99.9),
+                    latencies.max()));
+        }
+        return new LoadReport(scenario, concurrency, seconds, requests, requests / seconds,
+                ratio(errors, requests), operations);
+    }
+
+    public String toJson() {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(scenario + ".json"), toJson());
+        Files.writeString(directory.resolve(scenario + ".html"), toHtml());
+    }
+
+    private String toHtml() {
+        StringBuilder html = new StringBuilder()
+                .append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load report: ")
+                .append(scenario).append("</title>\n")
+                .append("<style>body{font-family:sans-serif}td,th{padding:4px 12px;text-align:right}")
+                .append("th:first-child,td:first-child{text-align:left}</style></head><body>\n")
+                .append(String.format("<h1>%s</h1>\n<p>%d workers, %.1f s, %d requests, %.1f req/s, %.3f%% errors</p>\n",
+                        scenario, concurrency, durationSeconds, requests, throughputPerSecond, errorRate * 100))
+                .append("<table>\n<tr><th>operation</th><th>requests</th><th>req/s</th><th>errors</th>")
+                .append("<th>p50 (ms)</th><th>p99 (ms)</th><th>p99.9 (ms)</th><th>max (ms)</th></tr>\n");
+        operations.forEach((operation, report) -> html.append(String.format(
+                "<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%d</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td></tr>\n",
+                operation, report.requests(), report.throughputPerSecond(), report.errors(),
+                report.p50Micros() / 1000.0, report.p99Micros() / 1000.0, report.p999Micros() / 1000.0,
+                report.maxMicros() / 1000.0)));
+        return html.append("</table>\n</body></html>\n").toString();
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : (double) part / whole;
+    }
+}
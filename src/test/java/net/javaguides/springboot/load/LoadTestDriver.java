@@ -0,0 +1,219 @@
+package net.javaguides.springboot.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop HTTP driver for every EmployeeController endpoint. Each worker thread picks an
+// operation from the weighted mix, times it and records the outcome per operation.
+//
+// Run against an already started instance (e.g. a local MySQL-backed one) with:
+//   java -cp target/test-classes:... net.javaguides.springboot.load.LoadTestDriver http://localhost:8080 PT60S 32
+public class LoadTestDriver {
+
+    public enum Operation {
+        GET_BY_ID, GET_ALL, CREATE, UPDATE, DELETE
+    }
+
+    public static final Map<Operation, Integer> READ_HEAVY_MIX = Map.of(
+            Operation.GET_BY_ID, 80,
+            Operation.GET_ALL, 2,
+            Operation.CREATE, 8,
+            Operation.UPDATE, 8,
+            Operation.DELETE, 2);
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDriver.class);
+    private static final AtomicLong EMAIL_SEQUENCE = new AtomicLong();
+
+    private final HttpClient httpClient;
+    private final URI employeesUri;
+    private final IdPool ids = new IdPool();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public LoadTestDriver(String baseUrl) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.employeesUri = URI.create(baseUrl + "/api/employees");
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public void seed(int employees) throws IOException, InterruptedException {
+        for (int i = 0; i < employees; i++) {
+            create();
+        }
+    }
+
+    public LoadReport run(String scenario, Map<Operation, Integer> mix, Duration duration, int concurrency)
+            throws InterruptedException {
+        Operation[] weighted = weighted(mix);
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    execute(weighted[ThreadLocalRandom.current().nextInt(weighted.length)]);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return LoadReport.of(scenario, concurrency, elapsed, stats);
+    }
+
+    private void execute(Operation operation) {
+        OperationStats operationStats = stats.get(operation);
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = switch (operation) {
+                case GET_BY_ID -> getById();
+                case GET_ALL -> getAll();
+                case CREATE -> create();
+                case UPDATE -> update();
+                case DELETE -> delete();
+            };
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        operationStats.latencies.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        if (!ok) {
+            operationStats.errors.increment();
+        }
+    }
+
+    private boolean getById() throws IOException, InterruptedException {
+        long id = ids.random();
+        int status = send(HttpRequest.newBuilder(employeesUri.resolve("employees/" + id)).GET());
+        return status == 200 || status == 404;
+    }
+
+    private boolean getAll() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(employeesUri).GET()) == 200;
+    }
+
+    private boolean create() throws IOException, InterruptedException {
+        HttpRequest request = json(HttpRequest.newBuilder(employeesUri))
+                .POST(HttpRequest.BodyPublishers.ofString(body()))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        ids.add(idOf(response.body()));
+        return true;
+    }
+
+    private boolean update() throws IOException, InterruptedException {
+        long id = ids.random();
+        int status = send(json(HttpRequest.newBuilder(employeesUri.resolve("employees/" + id)))
+                .PUT(HttpRequest.BodyPublishers.ofString(body())));
+        return status == 200 || status == 404;
+    }
+
+    private boolean delete() throws IOException, InterruptedException {
+        long id = ids.take();
+        if (id < 0) {
+            return true;
+        }
+        return send(HttpRequest.newBuilder(employeesUri.resolve("employees/" + id)).DELETE()) == 200;
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder request) {
+        return request.header("Content-Type", "application/json");
+    }
+
+    private static String body() {
+        long sequence = EMAIL_SEQUENCE.incrementAndGet();
+        return "{\"firstName\":\"Load" + sequence + "\",\"lastName\":\"Test\",\"email\":\"load" + sequence
+                + "@loadtest.local\"}";
+    }
+
+    private static long idOf(String body) {
+        int start = body.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(body.substring(start, end));
+    }
+
+    private static Operation[] weighted(Map<Operation, Integer> mix) {
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        return weighted.toArray(Operation[]::new);
+    }
+
+    static class OperationStats {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    // ids created during the run; deletes take ids out so they never hit a missing row
+    private static class IdPool {
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(long id) {
+            ids.add(id);
+        }
+
+        synchronized long random() {
+            return ids.isEmpty() ? 1 : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized long take() {
+            if (ids.size() <= 1) {
+                return -1;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        Duration duration = args.length > 1 ? Duration.parse(args[1]) : Duration.ofSeconds(60);
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+
+        LoadTestDriver driver = new LoadTestDriver(baseUrl);
+        driver.seed(1000);
+        LoadReport report = driver.run("read-heavy", READ_HEAVY_MIX, duration, concurrency);
+        report.write(Path.of("target", "load-report"));
+        logger.info("{}", report.toJson());
+    }
+}
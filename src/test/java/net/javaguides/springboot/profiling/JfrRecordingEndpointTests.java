@@ -0,0 +1,137 @@
+package net.javaguides.springboot.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-jfr;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "jfr.event-threshold=0ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class JfrRecordingEndpointTests {
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JfrRecordingEndpoint endpoint;
+
+    @DynamicPropertySource
+    static void dumpDirectory(DynamicPropertyRegistry registry) {
+        registry.add("jfr.directory", directory::toString);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        endpoint.stop();
+    }
+
+    //Junit test for recording employee events and dumping them through the actuator endpoint
+    @DisplayName("Junit test for start and dump recording Employee Operation and Request events")
+    @Test
+    void givenRecordingStarted_whenGetEmployeeTwiceAndDump_thenEventsCarryCacheRowsAndBytes() throws Exception {
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(
+                Employee.builder().firstName("Fan").lastName("Jups").email("profiled@gmail.com").build());
+        // the actuator is on the management port, which a mock environment does not start
+        assertThat(endpoint.control("start").state()).isEqualTo("RUNNING");
+
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/{id}", 404_404L)).andExpect(status().isNotFound());
+        JfrRecordingEndpoint.RecordingStatus status = endpoint.control("dump");
+
+        //then - verify the output
+        assertThat(status.state()).isEqualTo("RUNNING");
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(status.dumpFile()));
+        // the recording is JVM-wide; MockMvc ran this test's requests on this thread, other classes run in parallel
+        long testThread = Thread.currentThread().getId();
+        List<RecordedEvent> operations = events.stream()
+                .filter(event -> event.getEventType().getName().equals("net.javaguides.springboot.EmployeeOperation"))
+                .filter(event -> event.getThread().getJavaThreadId() == testThread)
+                .toList();
+        List<RecordedEvent> requests = events.stream()
+                .filter(event -> event.getEventType().getName().equals("net.javaguides.springboot.EmployeeRequest"))
+                .filter(event -> event.getThread().getJavaThreadId() == testThread)
+                .toList();
+        assertThat(operations).extracting(event -> event.getString("operation"))
+                .containsExactly("getEmployeeById", "getEmployeeById", "getEmployeeById");
+        assertThat(operations).extracting(event -> event.getString("cache")).containsExactly("miss", "hit", "miss");
+        assertThat(operations).extracting(event -> event.getInt("rows")).containsExactly(1, 1, 0);
+        assertThat(requests).extracting(event -> event.getInt("status")).containsExactly(200, 200, 404);
+        assertThat(requests).allSatisfy(event -> assertThat(event.getString("endpoint")).isEqualTo("getEmployeeById"));
+        assertThat(requests.get(0).getLong("bytes")).isPositive();
+        assertThat(events).anySatisfy(event ->
+                assertThat(event.getEventType().getName()).isEqualTo("jdk.ObjectAllocationSample"));
+    }
+
+    //Junit test for the actuator staying off the API port
+    @DisplayName("Junit test for jfr and hotkeys not being served next to the API while the probes are")
+    @Test
+    void givenManagementPort_whenCallActuatorOnApiPort_thenOnlyProbesAreServed() throws Exception {
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(post("/actuator/jfr/start")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/hotkeys")).andExpect(status().isNotFound());
+
+        //then - verify the output
+        mockMvc.perform(get("/livez")).andExpect(status().isOk());
+        assertThat(endpoint.status().state()).isEqualTo("STOPPED");
+    }
+
+    //Junit test for keeping only the newest dumps
+    @DisplayName("Junit test for repeated dumps getting distinct files and keeping only max-dumps of them")
+    @Test
+    void givenMaxDumpsTwo_whenDumpThreeTimes_thenOnlyTheNewestTwoRemain(@TempDir Path dumps) throws Exception {
+        //given - precondition or setup
+        JfrProperties properties = new JfrProperties();
+        properties.setDirectory(dumps);
+        properties.setMaxDumps(2);
+        JfrRecordingEndpoint recordingEndpoint = new JfrRecordingEndpoint(properties);
+        recordingEndpoint.start();
+
+        //when - action or the behaviour that we are going to test
+        List<String> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                files.add(recordingEndpoint.control("dump").dumpFile());
+            }
+        } finally {
+            recordingEndpoint.stop();
+        }
+
+        //then - verify the output
+        assertThat(files).doesNotHaveDuplicates();
+        try (Stream<Path> remaining = Files.list(dumps)) {
+            assertThat(remaining.map(Path::toString)).hasSize(2).doesNotContain(files.get(0));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.javaguides.springboot.querycount;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.function.ToIntFunction;
+
+// Counts the SQL statements each test runs on its own thread (MockMvc requests included) through
+// QueryCountingListener, so N+1 regressions fail a test. Call reset() after the //given part:
+//
+//   @ExtendWith(QueryCountExtension.class)
+//   ...
+//   QueryCountExtension.reset();
+//   employeeRepository.findAll();
+//   assertSelectCount(1);
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        QueryCounter.begin();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryCount count = QueryCounter.current();
+        if (count != null) {
+            QueryCounter.end(count);
+        }
+    }
+
+    public static void reset() {
+        count().reset();
+    }
+
+    public static void assertSelectCount(int expected) {
+        assertCount("select", expected, QueryCount::getSelects);
+    }
+
+    public static void assertInsertCount(int expected) {
+        assertCount("insert", expected, QueryCount::getInserts);
+    }
+
+    public static void assertUpdateCount(int expected) {
+        assertCount("update", expected, QueryCount::getUpdates);
+    }
+
+    public static void assertDeleteCount(int expected) {
+        assertCount("delete", expected, QueryCount::getDeletes);
+    }
+
+    public static void assertStatementCount(int expected) {
+        assertCount("total", expected, QueryCount::getTotal);
+    }
+
+    private static void assertCount(String kind, int expected, ToIntFunction<QueryCount> actual) {
+        QueryCount count = count();
+        if (actual.applyAsInt(count) != expected) {
+            StringBuilder message = new StringBuilder("Expected ").append(expected).append(' ').append(kind)
+                    .append(" statements but the test ran ").append(count).append(':');
+            count.getStatements().forEach(sql -> message.append("\n  ").append(sql));
+            throw new AssertionError(message);
+        }
+    }
+
+    private static QueryCount count() {
+        QueryCount count = QueryCounter.current();
+        if (count == null) {
+            throw new IllegalStateException("Statements are only counted in tests extended with QueryCountExtension");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,85 @@
+package net.javaguides.springboot.querycount;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.EmployeeStatus;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// deleting runs two statements (the email lookup and the update), reading by id one
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-statement-budget;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "statement-budget.max-statements=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StatementBudgetFilterTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private StatementBudgetProperties properties;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        properties.setMode(StatementBudgetProperties.Mode.LOG);
+    }
+
+    //Junit test for rejecting a request past its statement budget
+    @DisplayName("Junit test for reject mode failing the statement past the budget")
+    @Test
+    void givenRejectMode_whenRequestNeedsMoreStatements_thenItFailsBeforeWriting() throws Exception {
+        //given - precondition or setup
+        properties.setMode(StatementBudgetProperties.Mode.REJECT);
+        Employee employee = employeeRepository.save(
+                Employee.builder().firstName("Fan").lastName("Jups").email("budget@gmail.com").build());
+        double exceededBefore = exceeded();
+
+        //when - action or the behaviour that we are going to test
+        int readStatus = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                .andReturn().getResponse().getStatus();
+        int deleteStatus = mockMvc.perform(delete("/api/employees/{id}", employee.getId()))
+                .andReturn().getResponse().getStatus();
+
+        //then - verify the output
+        assertThat(readStatus).isEqualTo(200);
+        assertThat(deleteStatus).isEqualTo(500);
+        assertThat(employeeRepository.findById(employee.getId()).get().getStatus()).isEqualTo(EmployeeStatus.ACTIVE);
+        assertThat(exceeded() - exceededBefore).isEqualTo(1);
+    }
+
+    //Junit test for logging a request past its statement budget
+    @DisplayName("Junit test for log mode letting the request through and counting it")
+    @Test
+    void givenLogMode_whenRequestNeedsMoreStatements_thenItCompletesAndIsCounted() throws Exception {
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(
+                Employee.builder().firstName("Fan").lastName("Jups").email("logged@gmail.com").build());
+        double exceededBefore = exceeded();
+
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(delete("/api/employees/{id}", employee.getId())).andExpect(status().isOk());
+
+        //then - verify the output
+        assertThat(exceeded() - exceededBefore).isEqualTo(1);
+    }
+
+    private double exceeded() {
+        return meterRegistry.get("statement.budget.exceeded").counter().count();
+    }
+}
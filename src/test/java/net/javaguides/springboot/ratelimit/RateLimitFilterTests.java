@@ -0,0 +1,121 @@
+package net.javaguides.springboot.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// the list budget caps how many full-table reads a single client can push through to the database
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-ratelimit;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ratelimit.enabled=true",
+        "ratelimit.list-budget.permits-per-second=1",
+        "ratelimit.list-budget.burst=5",
+        "ratelimit.api-keys=hammer,greedy,polite"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class RateLimitFilterTests {
+    private static final int REQUESTS = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //Junit test for the list budget shielding the database
+    @DisplayName("Junit test for the list budget shielding the database")
+    @Test
+    void givenListBudget_whenClientHammersListEndpoint_thenExcessIsRejectedBeforeTheDatabase() throws Exception {
+        //given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Fan").lastName("Jups").email("fan@gmail.com").build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double rejectedBefore = rejectedListRequests();
+        long start = System.nanoTime();
+
+        //when - action or the behaviour that we are going to test
+        int allowed = 0;
+        int rejected = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            MvcResult result = mockMvc.perform(get("/api/employees").header("X-API-Key", "hammer")).andReturn();
+            if (result.getResponse().getStatus() == 429) {
+                rejected++;
+                assertThat(Long.parseLong(result.getResponse().getHeader("Retry-After"))).isPositive();
+            } else {
+                assertThat(result.getResponse().getStatus()).isEqualTo(200);
+                allowed++;
+            }
+        }
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + 1;
+
+        //then - verify the output
+        long ceiling = 5 + elapsedSeconds;
+        assertThat(allowed).isBetween(5, (int) ceiling);
+        assertThat(rejected).isEqualTo(REQUESTS - allowed);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(ceiling);
+        assertThat(rejectedListRequests() - rejectedBefore).isEqualTo(rejected);
+    }
+
+    //Junit test for a separate bucket per API key
+    @DisplayName("Junit test for a separate bucket per API key")
+    @Test
+    void givenExhaustedClient_whenOtherClientCalls_thenOtherClientIsServed() throws Exception {
+        //given - precondition or setup
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/api/employees").header("X-API-Key", "greedy"));
+        }
+
+        //when - action or the behaviour that we are going to test
+        int greedyStatus = mockMvc.perform(get("/api/employees").header("X-API-Key", "greedy"))
+                .andReturn().getResponse().getStatus();
+        int politeStatus = mockMvc.perform(get("/api/employees").header("X-API-Key", "polite"))
+                .andReturn().getResponse().getStatus();
+
+        //then - verify the output
+        assertThat(greedyStatus).isEqualTo(429);
+        assertThat(politeStatus).isEqualTo(200);
+    }
+
+    //Junit test for unknown API keys sharing the remote address bucket
+    @DisplayName("Junit test for a fresh unknown API key per request not escaping the limit")
+    @Test
+    void givenUnknownApiKeys_whenClientRotatesThem_thenRemoteAddressIsLimited() throws Exception {
+        //given - precondition or setup
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/api/employees").header("X-API-Key", "rotating-" + i));
+        }
+
+        //when - action or the behaviour that we are going to test
+        int status = mockMvc.perform(get("/api/employees").header("X-API-Key", "rotating-10"))
+                .andReturn().getResponse().getStatus();
+
+        //then - verify the output
+        assertThat(status).isEqualTo(429);
+    }
+
+    private double rejectedListRequests() {
+        return meterRegistry.get("ratelimit.requests").tag("budget", "list").tag("outcome", "rejected")
+                .counter().count();
+    }
+}
@@ -0,0 +1,63 @@
+package net.javaguides.springboot.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    //Junit test for a burst followed by rejection
+    @DisplayName("Junit test for a burst followed by rejection")
+    @Test
+    void givenFullBucket_whenBurstExhausted_thenWaitUntilNextPermit() {
+        //given - precondition or setup
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+
+        //when - action or the behaviour that we are going to test
+        long allowed = IntStream.range(0, 3).mapToLong(i -> bucket.tryAcquire(0)).filter(wait -> wait == 0).count();
+        long wait = bucket.tryAcquire(0);
+
+        //then - verify the output
+        assertThat(allowed).isEqualTo(3);
+        assertThat(wait).isEqualTo(SECOND / 2);
+        assertThat(bucket.isFull(0)).isFalse();
+    }
+
+    //Junit test for refilling at the configured rate
+    @DisplayName("Junit test for refilling at the configured rate")
+    @Test
+    void givenEmptyBucket_whenTimePasses_thenPermitsRefill() {
+        //given - precondition or setup
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+        IntStream.range(0, 3).forEach(i -> bucket.tryAcquire(0));
+
+        //when - action or the behaviour that we are going to test
+        long afterHalfSecond = bucket.tryAcquire(SECOND / 2);
+        long rejectedImmediately = bucket.tryAcquire(SECOND / 2);
+
+        //then - verify the output
+        assertThat(afterHalfSecond).isZero();
+        assertThat(rejectedImmediately).isPositive();
+        assertThat(bucket.isFull(2 * SECOND)).isTrue();
+    }
+
+    //Junit test for the bounded client registry
+    @DisplayName("Junit test for the bounded client registry")
+    @Test
+    void givenManyClients_whenTryAcquire_thenRegistryStaysBounded() {
+        //given - precondition or setup
+        RateLimiterRegistry registry = new RateLimiterRegistry(new RateLimitProperties.Budget(1, 1), 10);
+
+        //when - action or the behaviour that we are going to test
+        IntStream.range(0, 100).forEach(i -> registry.tryAcquire("client-" + i, 0));
+
+        //then - verify the output
+        assertThat(registry.trackedClients()).isEqualTo(10);
+        assertThat(registry.tryAcquire("client-0", 0)).isPositive();
+    }
+}
@@ -0,0 +1,169 @@
+package net.javaguides.springboot.reconcile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-reconcile;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "reconcile.chunk-size=2",
+        "reconcile.partitions=2",
+        "reconcile.max-terminated-fraction=0.5"
+})
+@ActiveProfiles("h2")
+class EmployeeReconcileTests {
+    private static final LocalDate RUN_DATE = LocalDate.of(2026, 10, 19);
+
+    @TempDir
+    Path feedDirectory;
+
+    @Autowired
+    private EmployeeReconciler reconciler;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //Junit test for reconciling employees against the HR feed
+    @DisplayName("Junit test for reconciling employees against the HR feed")
+    @Test
+    void givenFeed_whenReconcile_thenChangedRowsWrittenAndMissingTerminated() throws Exception {
+        //given - precondition or setup
+        String tenant = "reconcile-apply";
+        TenantContext.runAs(tenant, () -> {
+            save("Ann", "Lee", "ann@acme.com");
+            save("Bob", "Ray", "bob@acme.com");
+            save("Carl", "Neil", "carl@acme.com");
+            save("Eve", "Stone", "eve@acme.com");
+        });
+        long annVersion = activeByEmail(tenant).get("ann@acme.com").getVersion();
+        Path feed = writeFeed("feed.csv", "Email,First Name,Last_Name\n"
+                + "ann@acme.com,Ann,Lee\n"
+                + "bob@acme.com,Robert,Ray\n"
+                + "dee@acme.com,Dee,Moss\n"
+                + ",No,Email\n"
+                + "dee@acme.com,Dee,Again\n"
+                + "eve@acme.com,Eve,Stone\n");
+        double unchangedBefore = rows("unchanged");
+
+        //when - action or the behaviour that we are going test
+        JobExecution execution = reconciler.reconcile(tenant, feed, RUN_DATE);
+
+        //then - verify the output
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        Map<String, Employee> active = activeByEmail(tenant);
+        assertThat(active).containsOnlyKeys("ann@acme.com", "bob@acme.com", "dee@acme.com", "eve@acme.com");
+        assertThat(active.get("ann@acme.com").getVersion()).isEqualTo(annVersion);
+        assertThat(active.get("bob@acme.com").getFirstName()).isEqualTo("Robert");
+        assertThat(active.get("dee@acme.com").getLastName()).isEqualTo("Moss");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees where tenant_id = ?"
+                + " and email = 'carl@acme.com' and status = 'TERMINATED'", Long.class, tenant)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employee_feed where tenant_id = ?", Long.class,
+                tenant)).isZero();
+        assertThat(rows("unchanged") - unchangedBefore).isEqualTo(2);
+    }
+
+    //Junit test for restarting a failed reconcile after its last committed chunk
+    @DisplayName("Junit test for restarting a failed reconcile after its last committed chunk")
+    @Test
+    void givenRunFailedOnBadLine_whenRelaunchedWithFixedFeed_thenResumesWithoutStagingRowsTwice() throws Exception {
+        //given - precondition or setup
+        String tenant = "reconcile-restart";
+        TenantContext.runAs(tenant, () -> save("Ann", "Lee", "ann@acme.com"));
+        String head = "email,firstName,lastName\n"
+                + "ann@acme.com,Ann,Lee\n"
+                + "bob@acme.com,Bob,Ray\n"
+                + "carl@acme.com,Carl,Neil\n"
+                + "dee@acme.com,Dee,Moss\n";
+        Path feed = writeFeed("restart.csv", head + "\"eve@acme.com,Eve,Stone\n");
+        JobExecution failed = reconciler.reconcile(tenant, feed, RUN_DATE);
+        assertThat(failed.getStatus()).isEqualTo(BatchStatus.FAILED);
+        writeFeed("restart.csv", head + "eve@acme.com,Eve,Stone\n");
+
+        //when - action or the behaviour that we are going test
+        JobExecution restarted = reconciler.reconcile(tenant, feed, RUN_DATE);
+
+        //then - verify the output
+        assertThat(restarted.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(restarted.getJobInstance().getInstanceId()).isEqualTo(failed.getJobInstance().getInstanceId());
+        StepExecution stage = step(restarted, "stageFeed");
+        assertThat(stage.getReadCount()).isEqualTo(1);
+        assertThat(activeByEmail(tenant)).containsOnlyKeys("ann@acme.com", "bob@acme.com", "carl@acme.com",
+                "dee@acme.com", "eve@acme.com");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees where tenant_id = ?", Long.class,
+                tenant)).isEqualTo(5);
+    }
+
+    //Junit test for refusing a feed that would terminate too many employees
+    @DisplayName("Junit test for refusing a feed that would terminate too many employees")
+    @Test
+    void givenTruncatedFeed_whenReconcile_thenFailsWithoutTerminatingAnyone() throws Exception {
+        //given - precondition or setup
+        String tenant = "reconcile-guard";
+        TenantContext.runAs(tenant, () -> {
+            save("Ann", "Lee", "ann@acme.com");
+            save("Bob", "Ray", "bob@acme.com");
+            save("Carl", "Neil", "carl@acme.com");
+        });
+        Path feed = writeFeed("truncated.csv", "email,firstName,lastName\nann@acme.com,Ann,Lee\n");
+
+        //when - action or the behaviour that we are going test
+        JobExecution execution = reconciler.reconcile(tenant, feed, RUN_DATE);
+
+        //then - verify the output
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(step(execution, "checkFeed").getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(activeByEmail(tenant)).hasSize(3);
+    }
+
+    private void save(String firstName, String lastName, String email) {
+        employeeService.saveEmployee(Employee.builder().firstName(firstName).lastName(lastName).email(email).build());
+    }
+
+    private Map<String, Employee> activeByEmail(String tenant) {
+        return TenantContext.callAs(tenant, () -> employeeRepository.findAll().stream()
+                .collect(Collectors.toMap(Employee::getEmail, Function.identity())));
+    }
+
+    private Path writeFeed(String name, String content) throws Exception {
+        return Files.writeString(feedDirectory.resolve(name), content);
+    }
+
+    private double rows(String outcome) {
+        return meterRegistry.counter("employee.reconcile.rows", "outcome", outcome).count();
+    }
+
+    private static StepExecution step(JobExecution execution, String name) {
+        List<StepExecution> steps = execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().equals(name))
+                .toList();
+        assertThat(steps).hasSize(1);
+        return steps.get(0);
+    }
+}
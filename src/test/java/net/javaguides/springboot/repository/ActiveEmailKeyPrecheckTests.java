@@ -0,0 +1,63 @@
+package net.javaguides.springboot.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActiveEmailKeyPrecheckTests {
+
+    //Junit test for V9 stopping with the duplicates instead of a bare index error
+    @DisplayName("Junit test for the active email key migration on a table with duplicate active emails")
+    @Test
+    void givenDuplicateActiveEmails_whenMigrate_thenFailsNamingThem() {
+        //given - precondition or setup
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:ems-precheck-dup;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway(dataSource).target("8").load().migrate();
+        insert(dataSource, "dup@gmail.com", "ACTIVE");
+        insert(dataSource, "dup@gmail.com", "ACTIVE");
+
+        //when - action or the behaviour that we are going to test
+        Flyway flyway = flyway(dataSource).load();
+
+        //then - verify the output
+        assertThatThrownBy(flyway::migrate)
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining("default/dup@gmail.com x2");
+    }
+
+    //Junit test for V9 applying when only terminated rows share the email
+    @DisplayName("Junit test for the active email key migration with a re-hired email")
+    @Test
+    void givenTerminatedDuplicate_whenMigrate_thenKeyIsAdded() {
+        //given - precondition or setup
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:ems-precheck-rehire;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway(dataSource).target("8").load().migrate();
+        insert(dataSource, "rehired@gmail.com", "TERMINATED");
+        insert(dataSource, "rehired@gmail.com", "ACTIVE");
+
+        //when - action or the behaviour that we are going to test
+        flyway(dataSource).load().migrate();
+
+        //then - verify the output
+        assertThat(flyway(dataSource).load().info().current().getVersion())
+                .isEqualTo(ActiveEmailKeyPrecheck.ACTIVE_EMAIL_KEY_VERSION);
+    }
+
+    private static FluentConfiguration flyway(DriverManagerDataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).callbacks(new ActiveEmailKeyPrecheck());
+    }
+
+    private static void insert(DriverManagerDataSource dataSource, String email, String status) {
+        new JdbcTemplate(dataSource).update("insert into employees (first_name, last_name, email, tenant_id, status, version) "
+                + "values ('Fan', 'Jups', ?, 'default', ?, 0)", email, status);
+    }
+}
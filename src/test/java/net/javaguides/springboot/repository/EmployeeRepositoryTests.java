@@ -1,22 +1,43 @@
 package net.javaguides.springboot.repository;
 
+import net.javaguides.springboot.jdbc.JdbcListeners;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.querycount.QueryCountExtension;
+import net.javaguides.springboot.querycount.QueryCountingListener;
+import net.javaguides.springboot.tenant.TenantContext;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertInsertCount;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertSelectCount;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertStatementCount;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-@DataJpaTest
+// MySQL mode: the upsert is MySQL's INSERT ... ON DUPLICATE KEY UPDATE
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:ems-repository;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcListeners.class, QueryCountingListener.class})
+@ExtendWith(QueryCountExtension.class)
 class EmployeeRepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Employee employee;
 
     @BeforeEach
@@ -43,6 +64,8 @@ class EmployeeRepositoryTests {
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
         assertThat(savedEmployee.getId()).isGreaterThan(0);
+        assertStatementCount(1);
+        assertInsertCount(1);
     }
 
     //Junit test for get all employees operation
@@ -64,12 +87,14 @@ class EmployeeRepositoryTests {
 
         employeeRepository.save(employee);
         employeeRepository.save(employee1);
+        QueryCountExtension.reset();
 
         //when - action or the behaviour that we are going to test
         List<Employee> employeeList = employeeRepository.findAll();
 
         //then - verify the output
         assertThat(employeeList).isNotNull().hasSize(2);
+        assertStatementCount(1);
     }
 
 
@@ -84,10 +109,13 @@ class EmployeeRepositoryTests {
 //                .email("fjk@gmail.com")
 //                .build();
         employeeRepository.save(employee);
+        QueryCountExtension.reset();
         //when - action or the behaviour that we are going to test
         Employee employeeDB = employeeRepository.findById(employee.getId()).get();
         //then - verify the output
         assertThat(employeeDB).isNotNull();
+        // still in the persistence context, no query needed
+        assertStatementCount(0);
     }
 
     //Junit test for get employee by email operation
@@ -101,10 +129,12 @@ class EmployeeRepositoryTests {
 //                .email("fjk@gmail.com")
 //                .build();
         employeeRepository.save(employee);
+        QueryCountExtension.reset();
         //when - action or the behaviour that we are going to test
         Employee employeeDB = employeeRepository.findByEmail(employee.getEmail()).get();
         //then - verify the output
         assertThat(employeeDB).isNotNull();
+        assertSelectCount(1);
     }
 
     //Junit test for update employee operation
@@ -208,12 +238,31 @@ class EmployeeRepositoryTests {
         String lastName = "Jups";
 
         //when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
+        Employee savedEmployee = employeeRepository.findByNativeSQL(TenantContext.getTenantId(), employee.getFirstName(), employee.getLastName());
 
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
     }
 
+    //Junit test for native SQL skipping other tenants and terminated employees
+    @DisplayName("Junit test for native SQL returning only the current tenant's active employees")
+    @Test
+    void givenOtherTenantAndTerminatedEmployees_whenFindByNativeSQL_thenReturnNull() {
+        //given - precondition or setup
+        employeeRepository.upsertByEmail("other", "Fan", "Jups", "fjk@gmail.com");
+        Employee terminated = employeeRepository.save(employee);
+        employeeRepository.terminateById(TenantContext.getTenantId(), terminated.getId(), Instant.now());
+
+        //when - action or the behaviour that we are going to test
+        Employee byIndex = employeeRepository.findByNativeSQL(TenantContext.getTenantId(), "Fan", "Jups");
+        Employee byName = employeeRepository.findByNativeSQLNamedParams(TenantContext.getTenantId(), "Fan", "Jups");
+
+        //then - verify the output
+        assertThat(byIndex).isNull();
+        assertThat(byName).isNull();
+        assertThat(employeeRepository.findByNativeSQL("other", "Fan", "Jups")).isNotNull();
+    }
+
     //Junit test for custom query using Native SQL with named params
     @DisplayName("Junit test for custom query using Native SQL with named params")
     @Test
@@ -230,9 +279,123 @@ class EmployeeRepositoryTests {
         String lastName = "Jups";
 
         //when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
+        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(TenantContext.getTenantId(), employee.getFirstName(), employee.getLastName());
 
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
     }
-}
\ No newline at end of file
+
+    //Junit test for selecting only the requested fields
+    @DisplayName("Junit test for selecting only the requested fields")
+    @Test
+    void givenFields_whenFindAllFieldsAndFindFieldsById_thenReturnOnlyThoseFields() {
+        //given - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        QueryCountExtension.reset();
+
+        //when - action or the behaviour that we are going to test
+        List<Map<String, Object>> rows = employeeRepository.findAllFields(List.of("id", "firstName"));
+        Optional<Map<String, Object>> row = employeeRepository.findFieldsById(savedEmployee.getId(), List.of("email"));
+
+        //then - verify the output
+        assertStatementCount(2);
+        assertThat(rows).containsExactly(Map.of("id", savedEmployee.getId(), "firstName", "Fan"));
+        assertThat(row).contains(Map.of("email", "fjk@gmail.com"));
+        assertThat(employeeRepository.findFieldsById(savedEmployee.getId() + 1, List.of("email"))).isEmpty();
+    }
+
+    //Junit test for paging a filtered, sorted search with keyset cursors
+    @DisplayName("Junit test for paging a filtered, sorted search with keyset cursors")
+    @Test
+    void givenFilterAndSort_whenFindWindowPageByPage_thenEveryMatchOnceInOrder() {
+        //given - precondition or setup
+        employeeRepository.saveAll(List.of(
+                Employee.builder().firstName("A").lastName("Jups").email("a@gmail.com").build(),
+                Employee.builder().firstName("B").lastName("Jupiter").email("b@acme.com").build(),
+                Employee.builder().firstName("C").lastName("Jups").email("c@GMAIL.com").build(),
+                Employee.builder().firstName("D").lastName("Doe").email("d@gmail.com").build(),
+                Employee.builder().firstName("E").lastName("Ju_x").email("e@gmail.com").build(),
+                Employee.builder().firstName("F").lastName("Jupp").email("f@gmail.com").build()));
+        List<String> filter = List.of("lastName:prefix:Jup", "email:domain:gmail.com");
+        QueryCountExtension.reset();
+
+        //when - action or the behaviour that we are going to test
+        List<String> firstNames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            EmployeeQuery query = EmployeeQuery.parse(filter, "-lastName", 1, cursor);
+            List<Employee> window = employeeRepository.findWindow(query.toSpecification(), query.getSort(), query.getLimit());
+            window.forEach(employee -> firstNames.add(employee.getFirstName()));
+            cursor = window.isEmpty() ? null : query.cursorAfter(window.get(0));
+            pages++;
+        } while (cursor != null);
+
+        //then - verify the output
+        assertThat(firstNames).containsExactly("A", "C", "F");
+        assertThat(pages).isEqualTo(4);
+        assertStatementCount(pages);
+    }
+
+    //Junit test for upserting by email
+    @DisplayName("Junit test for upserting by email in one statement")
+    @Test
+    void givenNewThenKnownEmail_whenUpsertByEmail_thenInsertThenUpdateInPlace() {
+        //given - precondition or setup
+        String tenantId = TenantContext.getTenantId();
+
+        //when - action or the behaviour that we are going to test
+        int inserted = employeeRepository.upsertByEmail(tenantId, "Fan", "Jups", "fjk@gmail.com");
+        int updated = employeeRepository.upsertByEmail(tenantId, "Fany", "Jupsy", "fjk@gmail.com");
+
+        //then - verify the output
+        assertThat(inserted).isEqualTo(1);
+        assertThat(updated).isEqualTo(2);
+        Employee employee = employeeRepository.findByEmail("fjk@gmail.com").get();
+        assertThat(employee.getFirstName()).isEqualTo("Fany");
+        assertThat(employee.getVersion()).isEqualTo(1);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    //Junit test for a tenant terminating another tenant's employee
+    @DisplayName("Junit test for terminateById leaving other tenants' employees alone")
+    @Test
+    void givenEmployeeOfAnotherTenant_whenTerminateById_thenNothingIsTerminated() {
+        //given - precondition or setup
+        // the session's tenant is fixed for the test transaction, so the other tenant's row goes in natively
+        employeeRepository.upsertByEmail("other", "Fan", "Jups", "fjk@gmail.com");
+        long otherId = jdbcTemplate.queryForObject("select id from employees where tenant_id = 'other'", Long.class);
+
+        //when - action or the behaviour that we are going to test
+        int terminated = employeeRepository.terminateById(TenantContext.getTenantId(), otherId, Instant.now());
+
+        //then - verify the output
+        assertThat(terminated).isZero();
+        assertThat(jdbcTemplate.queryForObject("select status from employees where id = ?", String.class, otherId))
+                .isEqualTo("ACTIVE");
+        assertThat(employeeRepository.terminateById("other", otherId, Instant.now())).isEqualTo(1);
+    }
+
+    //Junit test for batch upserts and re-hiring a terminated email
+    @DisplayName("Junit test for batch upserts and re-hiring a terminated email")
+    @Test
+    void givenTerminatedAndActiveEmails_whenUpsertAllByEmail_thenNewRowForTerminatedAndUpdateForActive() {
+        //given - precondition or setup
+        Employee terminated = employeeRepository.save(employee);
+        employeeRepository.terminateById(TenantContext.getTenantId(), terminated.getId(), Instant.now());
+        employeeRepository.save(Employee.builder().firstName("Ann").lastName("Lee").email("ann@acme.com").build());
+        QueryCountExtension.reset();
+
+        //when - action or the behaviour that we are going to test
+        int[] counts = employeeRepository.upsertAllByEmail(List.of(
+                Employee.builder().firstName("Fan").lastName("Again").email("fjk@gmail.com").build(),
+                Employee.builder().firstName("Ann").lastName("Moss").email("ann@acme.com").build()));
+
+        //then - verify the output
+        assertThat(counts).containsExactly(1, 2);
+        // one JDBC batch for both employees
+        assertStatementCount(1);
+        assertThat(employeeRepository.findByEmail("fjk@gmail.com").get().getId()).isNotEqualTo(terminated.getId());
+        assertThat(employeeRepository.findByEmail("ann@acme.com").get().getLastName()).isEqualTo("Moss");
+    }
+}
@@ -1,22 +1,32 @@
 package net.javaguides.springboot.repository.integration;
 
 import net.javaguides.springboot.integration.testcontainers.AbstractContainerBaseTest;
+import net.javaguides.springboot.jdbc.JdbcListeners;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.querycount.QueryCountExtension;
+import net.javaguides.springboot.querycount.QueryCountingListener;
 import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
 import java.util.List;
 import java.util.Optional;
 
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertSelectCount;
+import static net.javaguides.springboot.querycount.QueryCountExtension.assertStatementCount;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcListeners.class, QueryCountingListener.class})
+@ExtendWith(QueryCountExtension.class)
 class EmployeeRepositoryITests extends AbstractContainerBaseTest {
     @Autowired
     private EmployeeRepository employeeRepository;
@@ -31,7 +41,10 @@ class EmployeeRepositoryITests extends AbstractContainerBaseTest {
                 .email("fjk@gmail.com")
                 .build();
 
+        // the web ITs share this database and no longer roll back: flush the deletes of their leftover
+        // rows here, not inside a test's counted statements
         employeeRepository.deleteAll();
+        employeeRepository.flush();
     }
 
     //Junit test for save employee operation
@@ -70,12 +83,14 @@ class EmployeeRepositoryITests extends AbstractContainerBaseTest {
 
         employeeRepository.save(employee);
         employeeRepository.save(employee1);
+        QueryCountExtension.reset();
 
         //when - action or the behaviour that we are going to test
         List<Employee> employeeList = employeeRepository.findAll();
 
         //then - verify the output
         assertThat(employeeList).isNotNull().hasSize(2);
+        assertStatementCount(1);
     }
 
 
@@ -107,10 +122,12 @@ class EmployeeRepositoryITests extends AbstractContainerBaseTest {
 //                .email("fjk@gmail.com")
 //                .build();
         employeeRepository.save(employee);
+        QueryCountExtension.reset();
         //when - action or the behaviour that we are going to test
         Employee employeeDB = employeeRepository.findByEmail(employee.getEmail()).get();
         //then - verify the output
         assertThat(employeeDB).isNotNull();
+        assertSelectCount(1);
     }
 
     //Junit test for update employee operation
@@ -214,7 +231,7 @@ class EmployeeRepositoryITests extends AbstractContainerBaseTest {
         String lastName = "Jups";
 
         //when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
+        Employee savedEmployee = employeeRepository.findByNativeSQL(TenantContext.getTenantId(), employee.getFirstName(), employee.getLastName());
 
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
@@ -236,7 +253,7 @@ class EmployeeRepositoryITests extends AbstractContainerBaseTest {
         String lastName = "Jups";
 
         //when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
+        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(TenantContext.getTenantId(), employee.getFirstName(), employee.getLastName());
 
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
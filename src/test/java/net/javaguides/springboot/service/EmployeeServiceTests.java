@@ -1,9 +1,18 @@
 package net.javaguides.springboot.service;
 
+import net.javaguides.springboot.cache.EmployeeCache;
+import net.javaguides.springboot.dedupe.EmailBloomFilter;
+import net.javaguides.springboot.dto.EmployeeLookup;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeStats;
 import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.hotkeys.HotKeyTracker;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeQuery;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
+import net.javaguides.springboot.tenant.TenantContext;
+import net.javaguides.springboot.stats.EmployeeStatsCounters;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Assertions;
@@ -13,24 +22,42 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeStatsCounters statsCounters;
+    @Mock
+    private EmailBloomFilter emailFilter;
+    @Mock
+    private EmployeeCache employeeCache;
+    @Mock
+    private HotKeyTracker hotKeyTracker;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -65,6 +92,7 @@ class EmployeeServiceTests {
 
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(statsCounters).onCreated(employee.getEmail());
     }
 
     //Junit test for saveEmployee method
@@ -134,6 +162,66 @@ class EmployeeServiceTests {
         assertThat(savedEmployee).isNotNull();
     }
 
+    //Junit test for getEmployeesByIds method
+    @DisplayName("Junit test for getEmployeesByIds method")
+    @Test
+    void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesInRequestOrderAndMissingIds() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Fany")
+                .lastName("Jupsy")
+                .email("ukl@gmail.com")
+                .build();
+        given(employeeRepository.findAllById(List.of(2L, 3L, 1L))).willReturn(List.of(employee, employee1));
+
+        //when - action or the behaviour that we are going to test
+        EmployeeLookup lookup = employeeService.getEmployeesByIds(List.of(2L, 3L, 1L, 2L));
+
+        //then - verify the output
+        assertThat(lookup.getEmployees()).extracting(Employee::getId).containsExactly(2L, 1L);
+        assertThat(lookup.getMissingIds()).containsExactly(3L);
+    }
+
+    //Junit test for getEmployeesByIds method serving cached employees without a query
+    @DisplayName("Junit test for getEmployeesByIds method (cache first)")
+    @Test
+    void givenCachedEmployee_whenGetEmployeesByIds_thenOnlyUncachedIdsAreQueried() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Fany")
+                .lastName("Jupsy")
+                .email("ukl@gmail.com")
+                .build();
+        given(employeeCache.get(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.findAllById(List.of(2L))).willReturn(List.of(employee1));
+
+        //when - action or the behaviour that we are going to test
+        EmployeeLookup lookup = employeeService.getEmployeesByIds(List.of(1L, 2L));
+
+        //then - verify the output
+        assertThat(lookup.getEmployees()).extracting(Employee::getId).containsExactly(1L, 2L);
+        assertThat(lookup.getMissingIds()).isEmpty();
+        verify(employeeCache).put(employee1);
+    }
+
+    //Junit test for getEmployeesByIds method with more ids than fit in one IN query
+    @DisplayName("Junit test for getEmployeesByIds method (chunked)")
+    @Test
+    void givenManyEmployeeIds_whenGetEmployeesByIds_thenQueryInChunks() {
+        //given - precondition or setup
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+        given(employeeRepository.findAllById(anyIterable())).willReturn(Collections.emptyList());
+
+        //when - action or the behaviour that we are going to test
+        EmployeeLookup lookup = employeeService.getEmployeesByIds(ids);
+
+        //then - verify the output
+        verify(employeeRepository, times(3)).findAllById(anyIterable());
+        assertThat(lookup.getMissingIds()).hasSize(1200);
+    }
+
     //Junit test for updateEmployee
     @DisplayName("Junit test for updateEmployee")
     @Test
@@ -154,17 +242,208 @@ class EmployeeServiceTests {
     //Junit test for deleteEmployee
     @DisplayName("Junit test for deleteEmployee")
     @Test
-    void givenEmployeeId_whenDeleteEmployee_thenNothing() {
+    void givenEmployeeId_whenDeleteEmployee_thenEmployeeIsTerminated() {
         //given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.terminateById(eq(TenantContext.DEFAULT_TENANT), eq(employeeId), any(Instant.class))).willReturn(1);
 
         //when - action or the behaviour that we are going to test
         employeeService.deleteEmployee(employeeId);
         //then - verify the output
-        verify(employeeRepository,times(1)).deleteById(employeeId);
+        verify(employeeRepository,times(1)).terminateById(eq(TenantContext.DEFAULT_TENANT), eq(employeeId), any(Instant.class));
+        verify(employeeRepository, never()).deleteById(employeeId);
+        verify(statsCounters, never()).onDeleted(any());
+    }
+
+    //Junit test for deleteEmployee with an unknown id
+    @DisplayName("Junit test for deleteEmployee with an unknown id")
+    @Test
+    void givenUnknownEmployeeId_whenDeleteEmployee_thenThrowsException() {
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeRepository.terminateById(eq(TenantContext.DEFAULT_TENANT), eq(employeeId), any(Instant.class))).willReturn(0);
+
+        //when - action or the behaviour that we are going to test
+        Assertions.assertThrows(EmptyResultDataAccessException.class, () -> employeeService.deleteEmployee(employeeId));
+        //then - verify the output
+        verify(employeeRepository,times(1)).terminateById(eq(TenantContext.DEFAULT_TENANT), eq(employeeId), any(Instant.class));
+    }
+
+    //Junit test for updateEmployee retrying a lost optimistic lock
+    @DisplayName("Junit test for updateEmployee retrying a lost optimistic lock")
+    @Test
+    void givenConcurrentUpdate_whenUpdateEmployeeWithChanges_thenRetryAndSave() {
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L))
+                .willReturn(employee);
+
+        //when - action or the behaviour that we are going to test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, e -> e.setFirstName("Abba"));
+
+        //then - verify the output
+        assertThat(updatedEmployee).contains(employee);
+        assertThat(employee.getFirstName()).isEqualTo("Abba");
+        verify(employeeRepository, times(2)).findById(1L);
+        verify(employeeRepository, times(2)).save(employee);
+    }
+
+    //Junit test for updateEmployee giving up after the last attempt
+    @DisplayName("Junit test for updateEmployee giving up after the last attempt")
+    @Test
+    void givenPermanentContention_whenUpdateEmployeeWithChanges_thenThrowsAfterMaxAttempts() {
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        //when - action or the behaviour that we are going to test
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> employeeService.updateEmployee(1L, e -> e.setFirstName("Abba")));
+
+        //then - verify the output
+        verify(employeeRepository, times(5)).save(employee);
     }
 
+    //Junit test for changing the email to one another active employee has
+    @DisplayName("Junit test for updateEmployee with another active employee's email")
+    @Test
+    void givenTakenEmail_whenUpdateEmployee_thenThrowsDuplicateError() {
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willThrow(duplicateActiveEmail());
+
+        //when - action or the behaviour that we are going to test
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> employeeService.updateEmployee(employee));
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.updateEmployee(1L, e -> e.setEmail("taken@gmail.com")));
+
+        //then - verify the output
+        verify(employeeCache, never()).evict(1L);
+        verify(statsCounters, never()).onEmailChanged(any(), any());
+    }
+
+    //Junit test for keeping the stats counters in step with deletes
+    @DisplayName("Junit test for deleteEmployee updating the stats counters")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenDecrementStatsCounters() {
+        //given - precondition or setup
+        given(employeeRepository.findEmailById(1L)).willReturn(Optional.of(employee.getEmail()));
+        given(employeeRepository.terminateById(eq(TenantContext.DEFAULT_TENANT), eq(1L), any(Instant.class))).willReturn(1);
+
+        //when - action or the behaviour that we are going to test
+        employeeService.deleteEmployee(1L);
+
+        //then - verify the output
+        verify(statsCounters).onDeleted(employee.getEmail());
+    }
+
+    //Junit test for getEmployeeStats
+    @DisplayName("Junit test for getEmployeeStats served from the counters")
+    @Test
+    void givenCounters_whenGetEmployeeStats_thenNoRepositoryCall() {
+        //given - precondition or setup
+        EmployeeStats stats = new EmployeeStats(1, Map.of("gmail.com", 1L), null);
+        given(statsCounters.snapshot()).willReturn(stats);
+
+        //when - action or the behaviour that we are going to test
+        EmployeeStats employeeStats = employeeService.getEmployeeStats();
+
+        //then - verify the output
+        assertThat(employeeStats).isSameAs(stats);
+        verifyNoInteractions(employeeRepository);
+    }
+
+    //Junit test for skipping the duplicate check when the email filter rules the email out
+    @DisplayName("Junit test for saveEmployee skipping findByEmail for a definitely new email")
+    @Test
+    void givenEmailDefinitelyAbsent_whenSaveEmployee_thenSkipFindByEmail() {
+        //given - precondition or setup
+        given(emailFilter.definitelyAbsent(employee.getEmail())).willReturn(true);
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        //when - action or the behaviour that we are going to test
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        //then - verify the output
+        assertThat(savedEmployee).isSameAs(employee);
+        verify(employeeRepository, never()).findByEmail(any());
+        verify(emailFilter).add(employee.getEmail());
+    }
 
+    //Junit test for returning a cursor only when there is a next page
+    @DisplayName("Junit test for searchEmployees returning a cursor only when there is a next page")
+    @Test
+    void givenOneRowMoreThanTheLimit_whenSearchEmployees_thenReturnLimitRowsAndCursor() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder().id(2L).firstName("Fany").lastName("Jupsy").email("f@gmail.com").build();
+        EmployeeQuery query = EmployeeQuery.parse(List.of("lastName:prefix:Jup"), null, 1, null);
+        given(employeeRepository.findWindow(any(), any(), eq(2))).willReturn(List.of(employee, employee1));
+
+        //when - action or the behaviour that we are going to test
+        EmployeePage page = employeeService.searchEmployees(query);
+        EmployeePage lastPage = employeeService.searchEmployees(
+                EmployeeQuery.parse(List.of("lastName:prefix:Jup"), null, 2, page.getNextCursor()));
 
+        //then - verify the output
+        assertThat(page.getEmployees()).containsExactly(employee);
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(lastPage.getNextCursor()).isNull();
+    }
+
+    //Junit test for counting an upsert that created the employee
+    @DisplayName("Junit test for upsertByEmail counting only inserts as created")
+    @Test
+    void givenInsertThenUpdate_whenUpsertByEmail_thenOnlyInsertCountedAsCreated() {
+        //given - precondition or setup
+        given(employeeRepository.upsertByEmail(any(), eq("Fan"), eq("Jups"), eq("fjk@gmail.com"))).willReturn(1, 2);
+
+        //when - action or the behaviour that we are going to test
+        boolean created = employeeService.upsertByEmail(employee);
+        boolean createdAgain = employeeService.upsertByEmail(employee);
+
+        //then - verify the output
+        assertThat(created).isTrue();
+        assertThat(createdAgain).isFalse();
+        verify(statsCounters, times(1)).onCreated("fjk@gmail.com");
+        verify(emailFilter, times(2)).add("fjk@gmail.com");
+    }
+
+    //Junit test for serving getEmployeeById from the cache
+    @DisplayName("Junit test for getEmployeeById served from the cache")
+    @Test
+    void givenCachedEmployee_whenGetEmployeeById_thenNoRepositoryCall() {
+        //given - precondition or setup
+        given(employeeCache.get(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        //then - verify the output
+        assertThat(cachedEmployee).contains(employee);
+        verifyNoInteractions(employeeRepository);
+    }
+
+    //Junit test for evicting the cached employee on delete
+    @DisplayName("Junit test for deleteEmployee evicting the cached employee")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenEvictedFromCache() {
+        //given - precondition or setup
+        given(employeeRepository.findEmailById(1L)).willReturn(Optional.of(employee.getEmail()));
+        given(employeeRepository.terminateById(eq(TenantContext.DEFAULT_TENANT), eq(1L), any(Instant.class))).willReturn(1);
+
+        //when - action or the behaviour that we are going to test
+        employeeService.deleteEmployee(1L);
+
+        //then - verify the output
+        verify(employeeCache).evict(1L);
+        verify(employeeCache).evictEmail(employee.getEmail());
+    }
+
+    private static DataIntegrityViolationException duplicateActiveEmail() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"),
+                        Employee.ACTIVE_EMAIL_KEY.toUpperCase()));
+    }
 }
@@ -0,0 +1,104 @@
+package net.javaguides.springboot.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ShardRoutingDataSourceTests {
+    private static final int TENANTS = 10_000;
+
+    //Junit test for spreading tenants evenly over the shards
+    @DisplayName("Junit test for spreading tenants evenly over the shards")
+    @Test
+    void givenFourShards_whenPlacingTenants_thenEachShardGetsItsShare() {
+        //given - precondition or setup
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards(4));
+
+        //when - action or the behaviour that we are going to test
+        Map<String, Long> tenantsPerShard = new LinkedHashMap<>();
+        IntStream.range(0, TENANTS).forEach(i -> tenantsPerShard.merge(routing.shardFor("tenant-" + i), 1L, Long::sum));
+
+        //then - verify the output
+        assertThat(tenantsPerShard).hasSize(4);
+        assertThat(tenantsPerShard.values()).allSatisfy(count -> assertThat(count).isBetween(2_200L, 2_800L));
+    }
+
+    //Junit test for adding a shard without reshuffling every tenant
+    @DisplayName("Junit test for adding a shard without reshuffling every tenant")
+    @Test
+    void givenFourShards_whenFifthShardAdded_thenOnlyItsShareOfTenantsMoves() {
+        //given - precondition or setup
+        ShardRoutingDataSource before = new ShardRoutingDataSource(shards(4));
+        ShardRoutingDataSource after = new ShardRoutingDataSource(shards(5));
+
+        //when - action or the behaviour that we are going to test
+        long moved = IntStream.range(0, TENANTS)
+                .mapToObj(i -> "tenant-" + i)
+                .filter(tenant -> !before.shardFor(tenant).equals(after.shardFor(tenant)))
+                .peek(tenant -> assertThat(after.shardFor(tenant)).isEqualTo("s4"))
+                .count();
+
+        //then - verify the output
+        assertThat(moved).isBetween(TENANTS / 5 - 300L, TENANTS / 5 + 300L);
+    }
+
+    //Junit test for a pinned tenant staying on its recorded shard
+    @DisplayName("Junit test for a pinned tenant being routed to its shard instead of by hash")
+    @Test
+    void givenPinnedTenant_whenFifthShardAdded_thenTenantStaysOnItsShard() {
+        //given - precondition or setup
+        ShardRoutingDataSource before = new ShardRoutingDataSource(shards(4));
+        String movedTenant = IntStream.range(0, TENANTS).mapToObj(i -> "tenant-" + i)
+                .filter(tenant -> new ShardRoutingDataSource(shards(5)).shardFor(tenant).equals("s4"))
+                .findFirst().orElseThrow();
+
+        //when - action or the behaviour that we are going to test
+        ShardRoutingDataSource after = new ShardRoutingDataSource(shards(5),
+                Map.of(movedTenant, before.shardFor(movedTenant)));
+
+        //then - verify the output
+        assertThat(after.shardFor(movedTenant)).isEqualTo(before.shardFor(movedTenant));
+        assertThatThrownBy(() -> new ShardRoutingDataSource(shards(4), Map.of(movedTenant, "s4")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    //Junit test for finding tenants whose rows sit on a shard they are no longer routed to
+    @DisplayName("Junit test for reporting tenants routed away from their rows")
+    @Test
+    void givenRowsOnAnotherShard_whenMisplacedTenants_thenTenantAndItsShardAreReported() {
+        //given - precondition or setup
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < 2; i++) {
+            DataSource shard = new DriverManagerDataSource("jdbc:h2:mem:ems-placement-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            new JdbcTemplate(shard).execute("create table employees (tenant_id varchar(64) not null)");
+            shards.put("s" + i, shard);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards);
+        String tenant = "acme";
+        String wrongShard = routing.shardFor(tenant).equals("s0") ? "s1" : "s0";
+        new JdbcTemplate(shards.get(wrongShard)).update("insert into employees (tenant_id) values (?)", tenant);
+
+        //when - action or the behaviour that we are going to test
+        Map<String, String> misplaced = routing.misplacedTenants();
+
+        //then - verify the output
+        assertThat(misplaced).containsExactly(Map.entry(tenant, wrongShard));
+        assertThat(new ShardRoutingDataSource(shards, Map.of(tenant, wrongShard)).misplacedTenants()).isEmpty();
+    }
+
+    private static Map<String, DataSource> shards(int count) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        IntStream.range(0, count).forEach(i -> shards.put("s" + i, mock(DataSource.class)));
+        return shards;
+    }
+}
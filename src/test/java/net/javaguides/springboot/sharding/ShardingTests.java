@@ -0,0 +1,138 @@
+package net.javaguides.springboot.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// three H2 databases stand in for the shards; Flyway migrates each one and Hibernate validates
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.shards.s0.url=jdbc:h2:mem:ems-shard-0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "sharding.shards.s0.username=sa",
+        "sharding.shards.s1.url=jdbc:h2:mem:ems-shard-1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "sharding.shards.s1.username=sa",
+        "sharding.shards.s2.url=jdbc:h2:mem:ems-shard-2;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "sharding.shards.s2.username=sa",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"h2", "prod"})
+class ShardingTests {
+    private static final List<String> TENANTS = List.of("acme", "globex", "initech", "umbrella", "hooli", "stark");
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    //Junit test for keeping each tenant's rows on its own shard
+    @DisplayName("Junit test for keeping each tenant's rows on its own shard")
+    @Test
+    void givenSeveralTenants_whenSaveEmployees_thenRowsLandOnlyOnTheTenantsShard() {
+        //given - precondition or setup
+        TENANTS.forEach(tenant -> TenantContext.runAs(tenant, () -> employeeRepository.saveAll(List.of(
+                employee(tenant, 1), employee(tenant, 2)))));
+
+        //when - action or the behaviour that we are going to test
+        Map<String, List<Employee>> employeesByTenant = TENANTS.stream().collect(Collectors.toMap(
+                tenant -> tenant, tenant -> TenantContext.callAs(tenant, employeeRepository::findAll)));
+
+        //then - verify the output
+        for (String tenant : TENANTS) {
+            assertThat(employeesByTenant.get(tenant)).extracting(Employee::getEmail)
+                    .containsExactlyInAnyOrder(tenant + "1@gmail.com", tenant + "2@gmail.com");
+            String owner = dataSource.shardFor(tenant);
+            dataSource.getShards().forEach((shard, shardDataSource) -> {
+                Integer rows = new JdbcTemplate(shardDataSource).queryForObject(
+                        "select count(*) from employees where tenant_id = ?", Integer.class, tenant);
+                assertThat(rows).isEqualTo(shard.equals(owner) ? 2 : 0);
+            });
+        }
+    }
+
+    //Junit test for hiding other tenants' rows on lookup by id
+    @DisplayName("Junit test for hiding other tenants' rows on lookup by id")
+    @Test
+    void givenEmployeeOfOtherTenantOnSameShard_whenFindById_thenEmpty() {
+        //given - precondition or setup
+        String owner = "tenant-a";
+        String sameShardTenant = sameShardTenantAs(owner);
+        Employee saved = TenantContext.callAs(owner, () -> employeeRepository.save(employee(owner, 1)));
+
+        //when - action or the behaviour that we are going to test
+        boolean visibleToOwner = TenantContext.callAs(owner, () -> employeeRepository.findById(saved.getId())).isPresent();
+        boolean visibleToOther = TenantContext.callAs(sameShardTenant,
+                () -> employeeRepository.findById(saved.getId())).isPresent();
+
+        //then - verify the output
+        assertThat(visibleToOwner).isTrue();
+        assertThat(visibleToOther).isFalse();
+    }
+
+    //Junit test for scoping the REST API by the X-Tenant-Id header
+    @DisplayName("Junit test for scoping the REST API by the X-Tenant-Id header")
+    @Test
+    void givenTenantHeader_whenCreateAndList_thenOnlyThatTenantSeesTheEmployee() throws Exception {
+        //given - precondition or setup
+        mockMvc.perform(post("/api/employees").header("X-Tenant-Id", "wayne")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee("ignored", 1))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tenantId", is("wayne")));
+
+        //when - action or the behaviour that we are going to test + then - verify the output
+        mockMvc.perform(get("/api/employees").header("X-Tenant-Id", "wayne"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/employees").header("X-Tenant-Id", "oscorp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/employees").header("X-Tenant-Id", "not a tenant"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String sameShardTenantAs(String tenant) {
+        String shard = dataSource.shardFor(tenant);
+        for (int i = 0; ; i++) {
+            String candidate = "tenant-b" + i;
+            if (dataSource.shardFor(candidate).equals(shard)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static Employee employee(String tenant, int number) {
+        return Employee.builder()
+                .firstName("Fan")
+                .lastName("Jups")
+                .email(tenant + number + "@gmail.com")
+                .build();
+    }
+}
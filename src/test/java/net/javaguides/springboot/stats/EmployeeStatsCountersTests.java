@@ -0,0 +1,119 @@
+package net.javaguides.springboot.stats;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.dto.EmployeeStats;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.tenant.TenantContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-stats;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "stats.reconcile-interval=PT1H"
+})
+@ActiveProfiles("h2")
+class EmployeeStatsCountersTests {
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeStatsCounters statsCounters;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    //Junit test for counters maintained by the service and corrected by reconcile
+    @DisplayName("Junit test for counters maintained by the service and corrected by reconcile")
+    @Test
+    void givenServiceWritesAndOutOfBandInsert_whenStatsAndReconcile_thenCountsMatchTheTable() {
+        //given - precondition or setup
+        statsCounters.reconcile();
+        TenantContext.runAs("stats", () -> {
+            Employee first = employeeService.saveEmployee(employee("a@acme.com"));
+            employeeService.saveEmployee(employee("b@acme.com"));
+            employeeService.saveEmployee(employee("c@gmail.com"));
+            employeeService.updateEmployee(first.getId(), employee -> employee.setEmail("a@Gmail.com"));
+            employeeService.deleteEmployee(first.getId());
+        });
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when - action or the behaviour that we are going to test
+        EmployeeStats stats = TenantContext.callAs("stats", employeeService::getEmployeeStats);
+        EmployeeStats otherTenant = TenantContext.callAs("other", employeeService::getEmployeeStats);
+
+        //then - verify the output
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(stats.getTotal()).isEqualTo(2);
+        assertThat(stats.getByDomain()).containsExactlyInAnyOrderEntriesOf(
+                Map.of("acme.com", 1L, "gmail.com", 1L));
+        assertThat(otherTenant.getTotal()).isZero();
+
+        //when - a row written behind the service's back
+        jdbcTemplate.update("insert into employees (first_name, last_name, email, tenant_id, status, version)"
+                + " values ('Out', 'Of Band', 'd@acme.com', 'stats', 'ACTIVE', 0)");
+        statsCounters.reconcile();
+
+        //then - reconciliation picks it up
+        EmployeeStats reconciled = TenantContext.callAs("stats", employeeService::getEmployeeStats);
+        assertThat(reconciled.getTotal()).isEqualTo(3);
+        assertThat(reconciled.getByDomain()).containsEntry("acme.com", 2L);
+        assertThat(reconciled.getReconciledAt()).isNotNull();
+    }
+
+    //Junit test for increments made while the reconcile query runs
+    @DisplayName("Junit test for reconcile keeping increments made while its query runs")
+    @Test
+    void givenIncrementDuringReconcileQuery_whenReconcile_thenIncrementIsKept() throws Exception {
+        //given - precondition or setup
+        DataSource table = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:ems-stats-race;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(table).execute("create table employees (tenant_id varchar(64), email varchar(255),"
+                + " status varchar(16))");
+        new JdbcTemplate(table).update("insert into employees values ('race', 'a@acme.com', 'ACTIVE')");
+        AtomicReference<EmployeeStatsCounters> counters = new AtomicReference<>();
+        // a create that commits after the query, but bumps the counter while it runs
+        EmployeeStatsCounters racing = new EmployeeStatsCounters(new DelegatingDataSource(table) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                TenantContext.runAs("race", () -> counters.get().onCreated("b@acme.com"));
+                return super.getConnection();
+            }
+        });
+        counters.set(racing);
+
+        //when - action or the behaviour that we are going to test
+        racing.reconcile();
+
+        //then - verify the output
+        EmployeeStats stats = TenantContext.callAs("race", racing::snapshot);
+        assertThat(stats.getTotal()).isEqualTo(2);
+        assertThat(stats.getByDomain()).containsEntry("acme.com", 2L);
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("Fan")
+                .lastName("Jups")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package net.javaguides.springboot.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ems-tracing;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "tracing.sampling-probability=0",
+        "tracing.exporter=otlp-file",
+        "tracing.export-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TracingTests {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private BatchSpanProcessor spanProcessor;
+
+    @DynamicPropertySource
+    static void traceFile(DynamicPropertyRegistry registry) {
+        registry.add("tracing.file", () -> directory.resolve("traces.jsonl").toString());
+    }
+
+    //Junit test for one trace covering the request, controller, service and each query
+    @DisplayName("Junit test for a sampled request producing nested controller, service and JDBC spans")
+    @Test
+    void givenSampledTraceparent_whenGetEmployee_thenSpansNestFromRequestDownToTheQuery() throws Exception {
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(
+                Employee.builder().firstName("Fan").lastName("Jups").email("traced@gmail.com").build());
+        spanProcessor.flush();
+        Files.deleteIfExists(directory.resolve("traces.jsonl"));
+
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                        .header("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00"))
+                .andExpect(status().isOk());
+        spanProcessor.flush();
+
+        //then - verify the output
+        List<JsonNode> spans = exportedSpans();
+        assertThat(spans).allSatisfy(span -> assertThat(span.get("traceId").asText()).isEqualTo(TRACE_ID));
+        Map<String, JsonNode> byId = spans.stream()
+                .collect(Collectors.toMap(span -> span.get("spanId").asText(), Function.identity()));
+        JsonNode server = single(spans, "http get /api/employees/{id}");
+        JsonNode controller = single(spans, "EmployeeController#getEmployeeById");
+        JsonNode service = single(spans, "EmployeeServiceImpl#getEmployeeById");
+        JsonNode query = single(spans, "jdbc select");
+        assertThat(server.get("parentSpanId").asText()).isEqualTo("00f067aa0ba902b7");
+        assertThat(server.get("kind").asInt()).isEqualTo(2);
+        assertThat(controller.get("parentSpanId").asText()).isEqualTo(server.get("spanId").asText());
+        assertThat(service.get("parentSpanId").asText()).isEqualTo(controller.get("spanId").asText());
+        assertThat(query.get("kind").asInt()).isEqualTo(3);
+        assertThat(query.get("attributes").toString()).contains("db.statement").contains("employees");
+        // the query runs somewhere under the service call, below the repository and transaction layers
+        JsonNode ancestor = byId.get(query.get("parentSpanId").asText());
+        while (ancestor != service && ancestor.has("parentSpanId")) {
+            ancestor = byId.get(ancestor.get("parentSpanId").asText());
+        }
+        assertThat(ancestor).isSameAs(service);
+    }
+
+    private List<JsonNode> exportedSpans() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(directory.resolve("traces.jsonl"))) {
+            mapper.readTree(line).at("/resourceSpans/0/scopeSpans/0/spans").forEach(spans::add);
+        }
+        return spans;
+    }
+
+    private static JsonNode single(List<JsonNode> spans, String name) {
+        List<JsonNode> named = spans.stream().filter(span -> span.get("name").asText().equals(name)).toList();
+        assertThat(named).as(name).hasSize(1);
+        return named.get(0);
+    }
+}